@@ -11,6 +11,10 @@ public class AndroidLauncher extends AndroidApplication {
 	protected void onCreate (Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		AndroidApplicationConfiguration config = new AndroidApplicationConfiguration();
-		initialize(new FFighter(), config);
+		FFighter game = new FFighter();
+		// Update the game logic less often to spare weaker phones; swept
+		// collisions keep enemies from skipping through hitboxes.
+		game.tickRate = 30;
+		initialize(game, config);
 	}
 }
@@ -0,0 +1,60 @@
+package com.jonso.ffighter;
+
+/**
+ * One compiled animation: which frames to show, for how long each,
+ * and whether it loops. Clips never change once made, so a single
+ * clip is shared by every entity playing it, and the frame to show
+ * is worked out from the time since the clip started instead of
+ * being stepped along by each entity.
+ *
+ * @author Jonathan So
+ */
+public final class AnimClip {
+
+    private final int[] frames; // Indices of the frames, in order, in an AnimSet's sprites.
+    private final float frameTime; // How long to show each frame, in seconds.
+    private final boolean loops; // Whether or not to go back to the first frame after the last.
+
+    /**
+     * Constructor for a clip.
+     * @param frames Indices of the frames in order; copied, so the caller may reuse the array.
+     * @param frameTime How long to show each frame, in seconds.
+     * @param loops Whether the clip loops, or stays on its final frame.
+     */
+    public AnimClip(int[] frames, float frameTime, boolean loops) {
+        if (frames.length == 0) {
+            throw new IllegalArgumentException("An animation clip needs at least one frame.");
+        }
+        this.frames = new int[frames.length];
+        System.arraycopy(frames, 0, this.frames, 0, frames.length);
+        this.frameTime = frameTime;
+        this.loops = loops;
+    }
+
+    /**
+     * Get the frame to show some time after the clip started.
+     * @param elapsed Seconds since the clip started.
+     * @return An index into the AnimSet's sprites.
+     */
+    public int frameAt(float elapsed) {
+        int n = frameTime > 0 ? (int) (elapsed / frameTime) : 0;
+        if (n < 0) {
+            n = 0;
+        } else if (n >= frames.length) {
+            n = loops ? n % frames.length : frames.length - 1;
+        }
+        return frames[n];
+    }
+
+    /** Whether a clip that doesn't loop has reached its final frame. */
+    public boolean isFinished(float elapsed) {
+        return !loops && elapsed >= getDuration();
+    }
+
+    /** GETTERS */
+    public int getFrameCount() { return frames.length; }
+    public float getFrameTime() { return frameTime; }
+    public boolean loops() { return loops; }
+    /** How long one play through the clip takes, in seconds. */
+    public float getDuration() { return frames.length * frameTime; }
+}
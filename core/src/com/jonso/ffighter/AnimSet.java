@@ -0,0 +1,74 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.ArrayList;
+
+/**
+ * Every animation for one kind of entity (an archetype): its sprites
+ * and its clips. Build one per archetype when assets load and share it
+ * between every entity of that kind; entities only keep a clip id and
+ * how long it has been playing.
+ *
+ * Clip names are only looked up while setting up (idOf), so switching
+ * animations during play is an array index, not a string hash.
+ *
+ * @author Jonathan So
+ */
+public class AnimSet {
+
+    private final TextureRegion[] sprites; // Every frame; may be null when nothing is drawn.
+    private final ArrayList<AnimClip> clips; // Clips, indexed by id.
+    private final ArrayList<String> names; // Clip names, indexed by id.
+
+    /**
+     * Constructor for an empty set; add clips with add().
+     * @param sprites Frames for this archetype, all from the same atlas page; may be null headless.
+     */
+    public AnimSet(TextureRegion[] sprites) {
+        this.sprites = sprites;
+        this.clips = new ArrayList<AnimClip>();
+        this.names = new ArrayList<String>();
+    }
+
+    /**
+     * Add a clip under a name.
+     * @param name Name of the clip; must be unique within the set.
+     * @param clip The clip.
+     * @return The clip's id.
+     */
+    public int add(String name, AnimClip clip) {
+        if (names.contains(name)) {
+            throw new IllegalArgumentException("Duplicate animation: " + name);
+        }
+        names.add(name);
+        clips.add(clip);
+        return clips.size() - 1;
+    }
+
+    /**
+     * Look up a clip's id by name; meant for setup, not per-frame use.
+     * @param name Name of the clip.
+     * @return The clip's id, or -1 if there isn't one by that name.
+     */
+    public int idOf(String name) {
+        return names.indexOf(name);
+    }
+
+    /**
+     * Get the sprite to draw for a clip some time after it started.
+     * @param clip The clip's id.
+     * @param elapsed Seconds since the clip started.
+     * @return The frame's TextureRegion, or null if the set has no sprites.
+     */
+    public TextureRegion getSprite(int clip, float elapsed) {
+        if (sprites == null) { return null; }
+        return sprites[clips.get(clip).frameAt(elapsed)];
+    }
+
+    /** GETTERS */
+    public AnimClip getClip(int id) { return clips.get(id); }
+    public String getName(int id) { return names.get(id); }
+    public int size() { return clips.size(); }
+    public TextureRegion[] getSprites() { return sprites; }
+}
@@ -0,0 +1,57 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Names every asset the game loads through the AssetManager, so the
+ * TitleScreen can queue them all and the other screens can fetch them.
+ *
+ * @author Jonathan So
+ */
+public final class Assets {
+
+    // FILES
+    public static final String ATLAS = "atlas/game.atlas"; // Every sprite, packed.
+    public static final String ATTACKS = "attacks.json"; // The player's AttackTable.
+
+    // REGIONS IN THE ATLAS
+    public static final String PLAYER = "playertemp";
+    public static final String ENEMY = "basicenemy";
+
+    private Assets() { }
+
+    /**
+     * Compile the clips every enemy shares. Clip ids line up with
+     * EnemyStore.ANIM_WALK and ANIM_FALL; the atlas only has one
+     * enemy frame for now, so both clips show it.
+     * @param atlas The loaded sprite atlas.
+     * @return The enemy AnimSet.
+     */
+    public static AnimSet enemyAnims(TextureAtlas atlas) {
+        AnimSet anims = new AnimSet(new TextureRegion[] { atlas.findRegion(ENEMY) });
+        anims.add("walk", new AnimClip(new int[] { 0 }, 0.1f, true)); // EnemyStore.ANIM_WALK
+        anims.add("fall", new AnimClip(new int[] { 0 }, 0.1f, false)); // EnemyStore.ANIM_FALL
+        return anims;
+    }
+
+    /**
+     * Queue every asset for loading; the AssetManager loads them a bit at a time.
+     * @param assets The AssetManager to queue them on.
+     */
+    public static void queueAll(AssetManager assets) {
+        assets.load(ATLAS, TextureAtlas.class);
+        assets.load(ATTACKS, AttackTable.class);
+    }
+
+    /**
+     * Release every asset queued by queueAll. Each unload drops one reference;
+     * the asset is disposed once nothing else holds it.
+     * @param assets The AssetManager they were queued on.
+     */
+    public static void unloadAll(AssetManager assets) {
+        if (assets.isLoaded(ATLAS)) { assets.unload(ATLAS); }
+        if (assets.isLoaded(ATTACKS)) { assets.unload(ATTACKS); }
+    }
+}
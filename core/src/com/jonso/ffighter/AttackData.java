@@ -0,0 +1,59 @@
+package com.jonso.ffighter;
+
+/**
+ * One row of the AttackTable: where an attack's hitbox sits relative
+ * to the player, how long it stays active, how long the player
+ * recovers afterwards, and which animation it plays.
+ *
+ * @author Jonathan So
+ */
+public class AttackData {
+
+    private final String name; // Name, for debugging and telemetry.
+    private final int key; // Input.Keys code that triggers it, or -1.
+    private final float anchorX, anchorY; // Fraction of the player's size to offset from.
+    private final int offsetX, offsetY; // Extra offset, in pixels.
+    private final int width, height; // Size of the hitbox.
+    private final float active; // Time (in s) the hitbox is active.
+    private final float recovery; // Time (in s) after that before another attack can start.
+    private final int animId; // Animation to play; an index into AttackTable's animation names.
+
+    /** Constructor; see the getters for what each value means. */
+    public AttackData(String name, int key, float anchorX, float anchorY, int offsetX, int offsetY,
+                      int width, int height, float active, float recovery, int animId) {
+        this.name = name;
+        this.key = key;
+        this.anchorX = anchorX;
+        this.anchorY = anchorY;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.width = width;
+        this.height = height;
+        this.active = active;
+        this.recovery = recovery;
+        this.animId = animId;
+    }
+
+    /**
+     * Build the hitbox for this attack, placed around an entity.
+     * @param x X position of the entity.
+     * @param y Y position of the entity.
+     * @param entityWidth Width of the entity.
+     * @param entityHeight Height of the entity.
+     * @return A hitbox on the PLAYER_ATTACK layer.
+     */
+    public Hitbox createHitbox(int x, int y, int entityWidth, int entityHeight) {
+        return new Hitbox(x + (int) (entityWidth * anchorX) + offsetX,
+                y + (int) (entityHeight * anchorY) + offsetY,
+                width, height, CollisionLayers.PLAYER_ATTACK);
+    }
+
+    /** GETTERS */
+    public String getName() { return name; }
+    public int getKey() { return key; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public float getActive() { return active; }
+    public float getRecovery() { return recovery; }
+    public int getAnimId() { return animId; }
+}
@@ -0,0 +1,92 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.util.ArrayList;
+
+/**
+ * Every attack the player can do, loaded once from a JSON file
+ * (see android/assets/attacks.json) and then indexed by a small int id:
+ * the attack's position in the file. Triggering an attack is an
+ * array lookup, and adding a move only needs a new entry in the file.
+ *
+ * @author Jonathan So
+ */
+public class AttackTable {
+
+    public static final int NONE = -1; // Id meaning "no attack".
+    private static final int KEY_COUNT = 256; // Input.Keys codes are below this.
+
+    private AttackData[] attacks; // Indexed by attack id.
+    private int[] byKey; // Attack id for each key code, or NONE.
+    private String[] animNames; // Distinct animation names, indexed by animation id.
+
+    /** Constructor; use load() to read a table from a file. */
+    public AttackTable(AttackData[] attacks, String[] animNames) {
+        this.attacks = attacks;
+        this.animNames = animNames;
+        byKey = new int[KEY_COUNT];
+        for (int k = 0; k < KEY_COUNT; k++) {
+            byKey[k] = NONE;
+        }
+        // Earlier attacks win if two share a key.
+        for (int i = attacks.length - 1; i >= 0; i--) {
+            int key = attacks[i].getKey();
+            if (key >= 0 && key < KEY_COUNT) {
+                byKey[key] = i;
+            }
+        }
+    }
+
+    /**
+     * Read an attack table from JSON.
+     * @param file The JSON file; see attacks.json for the format.
+     * @return The table.
+     */
+    public static AttackTable load(FileHandle file) {
+        JsonValue root = new JsonReader().parse(file);
+        JsonValue list = root.get("attacks");
+        if (list == null) {
+            throw new GdxRuntimeException("No \"attacks\" array in " + file.path());
+        }
+        ArrayList<AttackData> attacks = new ArrayList<AttackData>();
+        ArrayList<String> animNames = new ArrayList<String>();
+        for (JsonValue a = list.child; a != null; a = a.next) {
+            String name = a.getString("name");
+            String keyName = a.getString("key", null);
+            int key = keyName == null ? -1 : Input.Keys.valueOf(keyName);
+            String anim = a.getString("anim", name);
+            int animId = animNames.indexOf(anim);
+            if (animId < 0) {
+                animId = animNames.size();
+                animNames.add(anim);
+            }
+            attacks.add(new AttackData(name, key,
+                    a.getFloat("anchorX", 0), a.getFloat("anchorY", 0),
+                    a.getInt("offsetX", 0), a.getInt("offsetY", 0),
+                    a.getInt("width"), a.getInt("height"),
+                    a.getFloat("active"), a.getFloat("recovery", 0), animId));
+        }
+        return new AttackTable(attacks.toArray(new AttackData[attacks.size()]),
+                animNames.toArray(new String[animNames.size()]));
+    }
+
+    /**
+     * Get the attack a key triggers.
+     * @param keycode An Input.Keys code.
+     * @return The attack's id, or NONE.
+     */
+    public int forKey(int keycode) {
+        return (keycode >= 0 && keycode < KEY_COUNT) ? byKey[keycode] : NONE;
+    }
+
+    /** GETTERS */
+    public AttackData get(int id) { return attacks[id]; }
+    public int size() { return attacks.length; }
+    public String getAnimName(int animId) { return animNames[animId]; }
+    public int getAnimCount() { return animNames.length; }
+}
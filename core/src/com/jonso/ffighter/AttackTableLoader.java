@@ -0,0 +1,37 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Lets the AssetManager load an AttackTable along with everything else.
+ *
+ * @author Jonathan So
+ */
+public class AttackTableLoader extends SynchronousAssetLoader<AttackTable, AttackTableLoader.AttackTableParameter> {
+
+    public AttackTableLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    @Override
+    public AttackTable load(AssetManager assetManager, String fileName, FileHandle file,
+                            AttackTableParameter parameter) {
+        return AttackTable.load(file);
+    }
+
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file,
+                                                  AttackTableParameter parameter) {
+        return null;
+    }
+
+    /** No options; required by the AssetManager. */
+    public static class AttackTableParameter extends AssetLoaderParameters<AttackTable> {
+    }
+}
@@ -0,0 +1,40 @@
+package com.jonso.ffighter;
+
+/**
+ * Runs a task over a number of chunks of work, e.g. ranges of enemy
+ * slots, and returns once every chunk is done. Chunks may run in any
+ * order, or at once on several threads, so a task must only touch its
+ * own chunk's data; anything it reports goes into a per-chunk buffer
+ * that the caller merges in chunk order afterwards.
+ *
+ * SEQUENTIAL runs chunks one after another on the calling thread; it's
+ * the default, and the only runner on backends without threads (HTML).
+ * The desktop backend can supply a runner backed by a thread pool.
+ *
+ * @author Jonathan So
+ */
+public interface ChunkRunner {
+
+    /** Work for one chunk. */
+    interface Task {
+        /** @param chunk Which chunk to work on, from 0 to chunks - 1. */
+        void run(int chunk);
+    }
+
+    /**
+     * Run a task over every chunk, returning once all are done.
+     * @param chunks How many chunks.
+     * @param task The work for each chunk.
+     */
+    void run(int chunks, Task task);
+
+    /** Runs every chunk in order on the calling thread. */
+    ChunkRunner SEQUENTIAL = new ChunkRunner() {
+        @Override
+        public void run(int chunks, Task task) {
+            for (int c = 0; c < chunks; c++) {
+                task.run(c);
+            }
+        }
+    };
+}
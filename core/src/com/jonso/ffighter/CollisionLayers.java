@@ -0,0 +1,61 @@
+package com.jonso.ffighter;
+
+/**
+ * Collision layers for Entities, Hitboxes and enemies.
+ * Every collider belongs to one category (a single bit) and has a mask
+ * of the categories it reacts to. A pair is only tested if the first's
+ * mask contains the second's category, so pairs that could never do
+ * anything (enemy vs enemy, the player vs themselves) cost nothing.
+ *
+ * The matrix below sets each category's default mask; it's the one place
+ * to change who collides with whom.
+ *
+ * @author Jonathan So
+ */
+public final class CollisionLayers {
+
+    // CATEGORIES
+    public static final int NONE = 0;
+    public static final int PLAYER = 1; // The player's body (not their hurtbox).
+    public static final int ENEMY = 1 << 1;
+    public static final int PLAYER_HURTBOX = 1 << 2; // Where enemies hurt the player.
+    public static final int PLAYER_ATTACK = 1 << 3; // The player's attack hitboxes.
+    public static final int COUNT = 4;
+
+    /**
+     * The layer-pair matrix: MATRIX[i] is the mask of the category 1 << i,
+     * i.e. every category it reacts to when they overlap.
+     */
+    private static final int[] MATRIX = new int[COUNT];
+    static {
+        MATRIX[indexOf(PLAYER)] = NONE;
+        MATRIX[indexOf(ENEMY)] = PLAYER_HURTBOX | PLAYER_ATTACK;
+        MATRIX[indexOf(PLAYER_HURTBOX)] = NONE;
+        MATRIX[indexOf(PLAYER_ATTACK)] = NONE;
+    }
+
+    private CollisionLayers() { }
+
+    /**
+     * Get the default mask of a category from the matrix.
+     * @param category A single category bit.
+     * @return Every category it reacts to.
+     */
+    public static int maskOf(int category) {
+        return category == NONE ? NONE : MATRIX[indexOf(category)];
+    }
+
+    /**
+     * Whether or not a collider with this mask reacts to that category.
+     * @param mask The first collider's mask.
+     * @param category The second collider's category.
+     */
+    public static boolean interacts(int mask, int category) {
+        return (mask & category) != 0;
+    }
+
+    /** Index in the matrix of a single category bit. */
+    private static int indexOf(int category) {
+        return Integer.numberOfTrailingZeros(category);
+    }
+}
@@ -0,0 +1,140 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.ArrayList;
+
+/**
+ * Draws a debug overlay of the GameWorld: every entity's rectangle,
+ * every active hitbox and, optionally, the broadphase cells they touch.
+ * Everything goes through one ShapeRenderer begin/end pass, with
+ * hitboxes grouped by color.
+ *
+ * While disabled, draw() returns straight away, and the ShapeRenderer
+ * isn't even created until the overlay is first shown.
+ *
+ * @author Jonathan So
+ */
+public class DebugRenderer implements Disposable {
+
+    private ShapeRenderer shapes; // Created the first time we draw.
+    private boolean enabled; // Whether or not to draw at all.
+    private boolean showCells; // Whether or not to draw broadphase cells.
+
+    private ArrayList<Color> colors; // Distinct hitbox colors this frame.
+
+    // COLORS
+    private final Color ENTITY_COL = Color.GRAY;
+    private final Color CELL_COL = Color.DARK_GRAY;
+
+    /**
+     * Constructor for the overlay.
+     * @param enabled Whether or not the overlay starts visible.
+     */
+    public DebugRenderer(boolean enabled) {
+        this.enabled = enabled;
+        colors = new ArrayList<Color>();
+    }
+
+    /**
+     * Draw the overlay, if enabled.
+     * @param projection The camera's combined matrix.
+     * @param world The world to draw.
+     * @param alpha How far we are between the last two ticks; entity and enemy
+     *              rectangles are drawn where their sprites are, cells and
+     *              hitboxes where collisions were checked.
+     */
+    public void draw(Matrix4 projection, GameWorld world, float alpha) {
+        if (!enabled) { return; }
+        if (shapes == null) { shapes = new ShapeRenderer(); }
+        shapes.setProjectionMatrix(projection);
+        shapes.begin(ShapeRenderer.ShapeType.Line);
+
+        ArrayList<Entity> entities = world.getEntities();
+        EnemyStore enemies = world.getEnemies();
+        ArrayList<Hitbox> hitboxes = world.getPlayer().getActive();
+
+        // Broadphase cells underneath everything else.
+        if (showCells) {
+            shapes.setColor(CELL_COL);
+            float cell = world.getCellSize();
+            for (int i = 0; i < entities.size(); i++) {
+                Rectangle r = entities.get(i).getRect();
+                drawCells(r.x, r.y, r.x + r.width, r.y + r.height, cell);
+            }
+            for (int i = 0; i < enemies.size(); i++) {
+                drawCells(enemies.getMinX(i), enemies.getMinY(i),
+                        enemies.getMaxX(i), enemies.getMaxY(i), cell);
+            }
+            for (int i = 0; i < hitboxes.size(); i++) {
+                Rectangle r = hitboxes.get(i).getRect();
+                drawCells(r.x, r.y, r.x + r.width, r.y + r.height, cell);
+            }
+        }
+
+        // Entity rectangles, interpolated like the sprites.
+        shapes.setColor(ENTITY_COL);
+        for (int i = 0; i < entities.size(); i++) {
+            Entity ntt = entities.get(i);
+            Rectangle r = ntt.getRect();
+            shapes.rect(ntt.getDrawX(alpha), ntt.getDrawY(alpha), r.width, r.height);
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            shapes.rect(enemies.getDrawX(i, alpha), enemies.getDrawY(i, alpha),
+                    enemies.getWidth(), enemies.getHeight());
+        }
+
+        // Hitboxes, one color at a time.
+        colors.clear();
+        for (int i = 0; i < hitboxes.size(); i++) {
+            Color col = hitboxes.get(i).getColor();
+            if (!colors.contains(col)) { colors.add(col); }
+        }
+        for (int c = 0; c < colors.size(); c++) {
+            shapes.setColor(colors.get(c));
+            for (int i = 0; i < hitboxes.size(); i++) {
+                if (hitboxes.get(i).getColor() == colors.get(c)) {
+                    hitboxes.get(i).draw(shapes);
+                }
+            }
+        }
+
+        shapes.end();
+    }
+
+    /** Outline every cell a box touches. */
+    private void drawCells(float minX, float minY, float maxX, float maxY, float cell) {
+        int cx0 = (int) Math.floor(minX / cell), cx1 = (int) Math.floor(maxX / cell);
+        int cy0 = (int) Math.floor(minY / cell), cy1 = (int) Math.floor(maxY / cell);
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                shapes.rect(cx * cell, cy * cell, cell, cell);
+            }
+        }
+    }
+
+    /** Cycle between hidden, shown, and shown with broadphase cells. */
+    public void cycle() {
+        if (!enabled) {
+            enabled = true;
+            showCells = false;
+        } else if (!showCells) {
+            showCells = true;
+        } else {
+            enabled = false;
+            showCells = false;
+        }
+    }
+
+    public void setShowCells(boolean showCells) { this.showCells = showCells; }
+    public boolean isEnabled() { return enabled; }
+
+    @Override
+    public void dispose() {
+        if (shapes != null) { shapes.dispose(); }
+    }
+}
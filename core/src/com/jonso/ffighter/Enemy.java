@@ -1,6 +1,6 @@
 package com.jonso.ffighter;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 /**
  * The enemy moves laterally towards the player and handles
@@ -8,78 +8,53 @@ import com.badlogic.gdx.graphics.Texture;
  *
  * When an enemy is hit, it falls until it is off-screen, then
  * it is erased.
+ *
+ * Enemies actually live in an EnemyStore, which moves and collides
+ * them all at once; an Enemy is an Entity-style view of one of its
+ * slots, filled in by EnemyStore.view(), for code that wants an object.
  * @author Jonathan So
  */
 public class Enemy extends Entity {
 
-    private GameScreen game; // We need a ref. to the GameScreen to delete self
-
-    private float speed = 200; // Speed moving towards the player.
+    private EnemyStore store; // The store this is a view of.
+    private int slot; // Our slot in the store.
     private boolean falling = false; // Whether or not this is in the state of falling.
 
     /**
-     * Constructor that makes an enemy and gets it moving.
-     * @param sprite The texture for the enemy.
-     * @param x Initial X pos.
-     * @param y Initial Y pos.
-     * @param facing Which way it'll move; +1 for facing right, -1 for facing left.
-     * @param game Ref. to the GameScreen.
+     * Constructor that makes an unbound view; pass it to EnemyStore.view to use it.
+     * @param sprite The sprite for the enemy; may be null if never drawn.
+     * @param width Width of the enemy.
+     * @param height Height of the enemy.
      */
-    public Enemy(Texture sprite, int x, int y, int facing, GameScreen game) {
-        super(sprite, x, y);
-        this.game = game;
-        this.vx = speed * facing;
+    public Enemy(TextureRegion sprite, int width, int height) {
+        super(sprite, 0, 0, width, height);
+        setLayer(CollisionLayers.ENEMY);
     }
 
-    /**
-     * Resolves hitbox-based collisions for hitboxes tagged
-     * "Player" (damage the player) or
-     * "Player_Attack" (get knocked back).
-     * @param other The Hitbox colliding with the Enemy.
-     */
-    public void resolveCollision(Hitbox other) {
-        if (other.getTag() == "Player" && !falling) {
-            game.notifyDamage();
-            fallInit(false);
-        } else if (other.getTag() == "Player_Attack" && !falling) {
-            fallInit(true);
-        }
+    /** Copy one slot's state into this view; called by EnemyStore.view. */
+    void bind(EnemyStore store, int slot, int x, int y, int prevX, int prevY,
+              float vx, float vy, boolean falling) {
+        this.store = store;
+        this.slot = slot;
+        setPosition(x, y);
+        this.prevX = prevX;
+        this.prevY = prevY;
+        this.vx = vx;
+        this.vy = vy;
+        this.falling = falling;
     }
 
     /**
-     * Move, and if falling, then check if we're below the visible area to delete.
-     * @param delta The amount of time from the previous frame to now.
-     */
-    public void move(float delta) {
-        super.move(delta);
-        if (falling) { fallLoop(); }
-    }
-
-    /**
-     * When we first begin falling, set our movement vectors to simulate knockback.
-     * Also add to the score.
-     * @param knockback Whether or not to apply forceful knockback.
+     * Resolves hitbox-based collisions by passing them on to the store,
+     * so the hit sticks to the real enemy.
+     * @param other The Hitbox colliding with the Enemy.
      */
-    private void fallInit(boolean knockback) {
-        falling = true;
-        game.addToScore(10);
-        if (knockback) {
-            this.vx *= -6;
-        } else {
-            this.vx *= -0.5;
-        }
+    public void resolveCollision(Hitbox other) {
+        store.resolveCollision(slot, other);
+        store.view(slot, this);
     }
 
-    /**
-     * Call fallInit the first time, and
-     * Continually accelerate towards the bottom of the screen, erasing
-     * ourselves from the game if we're below the visible area.
-     */
-    private void fallLoop() {
-        if (!falling) { fallInit(true); }
-        this.vy += -speed;
-        if (this.y < this.height) { // Erase from memory.
-            game.removeEntity(this);
-        }
-    }
+    /** GETTERS */
+    public int getSlot() { return slot; }
+    public boolean isFalling() { return falling; }
 }
@@ -0,0 +1,129 @@
+package com.jonso.ffighter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decides when enemies come and go. Every spawn and despawn the world
+ * applies goes through here, so this is where the limits live:
+ * a hard cap on live enemies (spawns past it are turned away), and
+ * world bounds, which EnemyStore checks as it moves enemies and queues
+ * a despawn for any that have left them, whether or not they were hit.
+ *
+ * A Listener can watch enemies come and go, and the counts of live,
+ * spawned, rejected and despawned (by reason) enemies are kept.
+ *
+ * @author Jonathan So
+ */
+public class EnemyLifecycle {
+
+    // DESPAWN REASONS
+    public static final int FELL = 0; // Knocked down and fell off the bottom of the screen.
+    public static final int OUT_OF_BOUNDS = 1; // Walked or was knocked out of the world bounds.
+    public static final int REASON_COUNT = 2;
+
+    /**
+     * Told when an enemy spawns or despawns. Slots are compacted at the
+     * start of every tick, so a slot only means that enemy during the call.
+     */
+    public interface Listener {
+        void spawned(int slot);
+        void despawned(int slot, int reason);
+    }
+
+    private EnemyStore enemies;
+    private Listener listener; // Null for none.
+    private int cap; // Most enemies alive at once.
+
+    // STATISTICS
+    private int spawned; // Enemies ever spawned.
+    private int rejected; // Spawns turned away by the cap.
+    private int[] despawned; // Enemies ever despawned, per reason.
+
+    /**
+     * Constructor for the lifecycle.
+     * @param enemies The enemies to manage.
+     * @param cap Most enemies alive at once.
+     */
+    public EnemyLifecycle(EnemyStore enemies, int cap) {
+        this.enemies = enemies;
+        this.cap = cap;
+        despawned = new int[REASON_COUNT];
+    }
+
+    /**
+     * Set the world bounds; enemies entirely outside them are despawned.
+     * @param minX Left edge.
+     * @param minY Bottom edge.
+     * @param maxX Right edge.
+     * @param maxY Top edge.
+     */
+    public void setBounds(float minX, float minY, float maxX, float maxY) {
+        enemies.setBounds(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Add an enemy, unless the cap is reached.
+     * @param x Initial X pos.
+     * @param y Initial Y pos.
+     * @param facing +1 for facing right, -1 for facing left.
+     * @return The enemy's slot, or -1 if it was turned away.
+     */
+    public int spawn(int x, int y, int facing) {
+        if (enemies.size() >= cap) {
+            rejected++;
+            return -1;
+        }
+        int slot = enemies.add(x, y, facing);
+        spawned++;
+        if (listener != null) { listener.spawned(slot); }
+        return slot;
+    }
+
+    /**
+     * Remove an enemy at the start of the next tick; called when the world
+     * applies a DESPAWN event. An enemy already despawned is left alone.
+     * @param slot The enemy's slot.
+     * @param reason FELL or OUT_OF_BOUNDS.
+     */
+    public void despawn(int slot, int reason) {
+        if (!enemies.despawn(slot)) { return; }
+        despawned[reason]++;
+        if (listener != null) { listener.despawned(slot, reason); }
+    }
+
+    /** Write the counts, for WorldSnapshot; the cap and bounds are settings, not state. */
+    public void save(ByteBuffer out) {
+        out.putInt(spawned);
+        out.putInt(rejected);
+        for (int n : despawned) { out.putInt(n); }
+    }
+
+    /** Read back what save() wrote. */
+    public void restore(ByteBuffer in) {
+        spawned = in.getInt();
+        rejected = in.getInt();
+        for (int r = 0; r < REASON_COUNT; r++) { despawned[r] = in.getInt(); }
+    }
+
+    /** Set who's told about spawns and despawns; null for nobody. */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Set the most enemies alive at once; enemies already over it are left alone. */
+    public void setCap(int cap) {
+        this.cap = cap;
+    }
+
+    /** GETTERS */
+    public int getLive() { return enemies.size(); }
+    public int getCap() { return cap; }
+    public int getSpawned() { return spawned; }
+    public int getRejected() { return rejected; }
+    public int getDespawned(int reason) { return despawned[reason]; }
+    public int getDespawned() {
+        int total = 0;
+        for (int n : despawned) { total += n; }
+        return total;
+    }
+}
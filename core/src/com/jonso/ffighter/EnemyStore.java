@@ -0,0 +1,561 @@
+package com.jonso.ffighter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packed storage for every live enemy. Rather than one heap object per
+ * enemy, each piece of state lives in its own primitive array, and an
+ * enemy is just a slot index into them. Movement, falling and bounds
+ * updates are single tight loops over the arrays.
+ *
+ * Slots [0, size) are live. Despawned enemies are only marked while
+ * a tick runs, then compacted away (keeping spawn order) at the start
+ * of the next one, like the old removeList. The arrays grow when full,
+ * so once they fit the busiest moment spawning allocates nothing.
+ *
+ * Each slot also keeps which animation clip it's playing and when that
+ * clip started, so the frame to draw comes from an AnimSet shared by
+ * every enemy with no per-enemy timer to step.
+ *
+ * Collisions are swept: an enemy is checked along its whole move from
+ * its previous position (see SweptAABB), and a hit moves it back to
+ * the point of impact, so fast enemies or low tick rates can't skip
+ * through a hitbox. Falling speeds up per second rather than per tick,
+ * up to MAX_FALL_SPEED, so the fall looks the same at any tick rate.
+ *
+ * Enemies that leave the world bounds, hit or not, are despawned as
+ * they move; see setBounds and EnemyLifecycle.
+ *
+ * Enemies outside an active region (usually the camera's view) can be
+ * moved only every few ticks, covering the skipped time in one step;
+ * see setActiveRegion. This is off by default, since moving in bigger
+ * steps rounds positions differently and so changes the game slightly.
+ *
+ * Moving and collision checks come in slot-range forms that only touch
+ * their own slots and report into a given event queue, so the GameWorld
+ * can split enemies into chunks and run them on several threads.
+ *
+ * save() and restore() copy the live slots in and out of a ByteBuffer
+ * an array at a time, for WorldSnapshot; bounds are recomputed rather
+ * than stored, so an enemy costs SAVE_BYTES.
+ *
+ * Use view() when an Entity-style object is needed for one enemy.
+ *
+ * @author Jonathan So
+ */
+public class EnemyStore {
+
+    private GameEventQueue events; // Where damage, score and despawns are reported.
+
+    private final float SPEED = 200; // Speed moving towards the player.
+    private final float GRAVITY = 12000; // Falling acceleration; SPEED per tick at 60 ticks per second.
+    private final float MAX_FALL_SPEED = 4800;
+    private final int MASK = CollisionLayers.maskOf(CollisionLayers.ENEMY); // Layers we react to.
+    private int width, height; // Size of every enemy.
+    private float time; // Seconds simulated so far; clip start times are measured against it.
+    private long ticks; // Ticks simulated so far.
+
+    // WORLD BOUNDS; enemies entirely outside them are despawned.
+    private float boundsMinX = -Float.MAX_VALUE, boundsMinY = -Float.MAX_VALUE;
+    private float boundsMaxX = Float.MAX_VALUE, boundsMaxY = Float.MAX_VALUE;
+
+    // REDUCED UPDATES OUTSIDE THE ACTIVE REGION
+    private int offscreenInterval = 1; // Move off-region enemies every this many ticks; 1 for every tick.
+    private float activeMinX, activeMinY, activeMaxX, activeMaxY; // The active region.
+    private int offscreenSkips; // Enemy moves skipped in the last tick.
+
+    public static final int SAVE_BYTES = 37; // Snapshot bytes per enemy.
+
+    // ARCHETYPES, by id; only the basic enemy exists so far.
+    public static final int BASIC = 0;
+    private static final String[] ARCHETYPES = { "basic" };
+
+    // ANIMATIONS, as clip ids in the enemy AnimSet.
+    public static final int ANIM_WALK = 0;
+    public static final int ANIM_FALL = 1;
+
+    // STATE, ONE ENTRY PER SLOT
+    private int size; // Number of live slots.
+    private int[] x, y; // POSITION
+    private int[] prevX, prevY; // POSITION BEFORE THE LAST MOVE, FOR INTERPOLATION
+    private float[] vx, vy; // VELOCITY
+    private boolean[] falling; // Whether or not the enemy has been hit and is falling.
+    private boolean[] dead; // Whether or not the enemy is waiting to be compacted away.
+    private float[] minX, minY, maxX, maxY; // BOUNDS, for collisions.
+    private int[] anim; // Clip currently playing.
+    private float[] animStart; // Time the current clip started.
+    private float[] skipped; // Time not yet moved through, from skipped off-region ticks.
+
+    // STATISTICS
+    private int spawned; // Enemies ever added.
+    private int despawned; // Enemies ever removed.
+    private int peak; // Most enemies alive at once.
+    private int grows; // Times the arrays had to grow mid-game.
+
+    /**
+     * Constructor for the store; allocates room for capacity enemies up front.
+     * @param width Width of an enemy.
+     * @param height Height of an enemy.
+     * @param capacity How many enemies fit before the arrays grow.
+     * @param events The world's event queue.
+     */
+    public EnemyStore(int width, int height, int capacity, GameEventQueue events) {
+        this.width = width;
+        this.height = height;
+        this.events = events;
+        allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * Add an enemy and get it moving.
+     * @param x Initial X pos.
+     * @param y Initial Y pos.
+     * @param facing Which way it'll move; +1 for facing right, -1 for facing left.
+     * @return The enemy's slot.
+     */
+    public int add(int x, int y, int facing) {
+        if (size == this.x.length) {
+            allocate(size * 2);
+            grows++;
+        }
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        prevX[i] = x;
+        prevY[i] = y;
+        vx[i] = SPEED * facing;
+        vy[i] = 0;
+        falling[i] = false;
+        dead[i] = false;
+        anim[i] = ANIM_WALK;
+        animStart[i] = time;
+        skipped[i] = 0;
+        updateBounds(i);
+        spawned++;
+        peak = Math.max(peak, size);
+        return i;
+    }
+
+    /**
+     * Look up an archetype's id by name; meant for loading, not per-frame use.
+     * @param name Name of the archetype, e.g. "basic".
+     * @return Its id, or -1 if there's no archetype by that name.
+     */
+    public static int archetypeOf(String name) {
+        for (int i = 0; i < ARCHETYPES.length; i++) {
+            if (ARCHETYPES[i].equals(name)) { return i; }
+        }
+        return -1;
+    }
+
+    /**
+     * Grow the arrays, if needed, so capacity enemies fit without growing again.
+     * @param capacity How many enemies to have room for.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > x.length) {
+            allocate(capacity);
+        }
+    }
+
+    /**
+     * Move every enemy by its velocity and delta, accelerate falling ones
+     * towards the bottom of the screen (queueing a despawn for those below
+     * the visible area, or outside the world bounds), and keep the bounds updated.
+     * @param delta The amount of time from the previous tick to now.
+     */
+    public void move(float delta) {
+        advance(delta);
+        move(delta, 0, size, events);
+    }
+
+    /**
+     * Advance the store's clock; once per tick, before moving any range.
+     * @param delta The amount of time from the previous tick to now.
+     */
+    public void advance(float delta) {
+        time += delta;
+        ticks++;
+        offscreenSkips = 0;
+    }
+
+    /**
+     * Set the world bounds; moving an enemy entirely outside them queues its despawn.
+     * @param minX Left edge.
+     * @param minY Bottom edge.
+     * @param maxX Right edge.
+     * @param maxY Top edge.
+     */
+    public void setBounds(float minX, float minY, float maxX, float maxY) {
+        boundsMinX = minX;
+        boundsMinY = minY;
+        boundsMaxX = maxX;
+        boundsMaxY = maxY;
+    }
+
+    /**
+     * Move enemies outside a region only every few ticks. Each enemy is
+     * offset by its slot so the skipped work spreads evenly over ticks.
+     * @param minX Left edge of the region.
+     * @param minY Bottom edge of the region.
+     * @param maxX Right edge of the region.
+     * @param maxY Top edge of the region.
+     * @param interval Ticks between moves outside the region; 1 moves them every tick.
+     */
+    public void setActiveRegion(float minX, float minY, float maxX, float maxY, int interval) {
+        activeMinX = minX;
+        activeMinY = minY;
+        activeMaxX = maxX;
+        activeMaxY = maxY;
+        offscreenInterval = Math.max(1, interval);
+    }
+
+    /**
+     * Move a range of slots, as move(delta) does for all of them. Only
+     * those slots are touched, so ranges that don't overlap may be moved
+     * on different threads at once, each with its own event queue.
+     * @param delta The amount of time from the previous tick to now.
+     * @param from First slot to move.
+     * @param to One past the last slot to move.
+     * @param out Where to queue despawns.
+     */
+    public void move(float delta, int from, int to, GameEventQueue out) {
+        int skips = 0;
+        for (int i = from; i < to; i++) {
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            float step = delta;
+            if (offscreenInterval > 1 && !isActive(i)) {
+                if ((ticks + i) % offscreenInterval != 0) { // Not this one's turn; catch up later.
+                    skipped[i] += delta;
+                    skips++;
+                    continue;
+                }
+                step += skipped[i];
+            }
+            skipped[i] = 0;
+            x[i] += (step * vx[i]);
+            y[i] += (step * vy[i]);
+            updateBounds(i);
+            if (falling[i]) {
+                vy[i] = Math.max(vy[i] - (GRAVITY * step), -MAX_FALL_SPEED);
+                if (y[i] < height) { // Erase from memory.
+                    out.despawn(i, EnemyLifecycle.FELL);
+                    continue;
+                }
+            }
+            if (minX[i] > boundsMaxX || maxX[i] < boundsMinX || minY[i] > boundsMaxY || maxY[i] < boundsMinY) {
+                out.despawn(i, EnemyLifecycle.OUT_OF_BOUNDS);
+            }
+        }
+        if (skips > 0) { addSkips(skips); }
+    }
+
+    /** Count skipped moves; ranges may be moved on several threads at once. */
+    private synchronized void addSkips(int skips) {
+        offscreenSkips += skips;
+    }
+
+    /** Whether a slot's bounds overlap the active region. */
+    private boolean isActive(int i) {
+        return minX[i] < activeMaxX && maxX[i] > activeMinX && minY[i] < activeMaxY && maxY[i] > activeMinY;
+    }
+
+    /**
+     * Check an enemy's last move against a Hitbox, resolving the hit if they met.
+     * Hitboxes on layers enemies don't react to are skipped before any rectangle test.
+     * Only slot i is touched, so different slots may be checked on different threads.
+     * @param i The enemy's slot.
+     * @param other The Hitbox which we're checking collisions with.
+     * @param out Where to queue damage and score.
+     */
+    public void checkCollision(int i, Hitbox other, GameEventQueue out) {
+        float toi = timeOfImpact(i, other);
+        if (toi != SweptAABB.NO_HIT) {
+            resolveCollision(i, other, toi, out);
+        }
+    }
+
+    /**
+     * Sweep an enemy along its last move against a Hitbox.
+     * @param i The enemy's slot.
+     * @param other The Hitbox.
+     * @return When during the move they first overlapped, from 0 to 1, or SweptAABB.NO_HIT;
+     *         always NO_HIT for a hitbox on a layer enemies don't react to, or while falling.
+     */
+    public float timeOfImpact(int i, Hitbox other) {
+        if (falling[i] || !CollisionLayers.interacts(MASK, other.getCategory())) { return SweptAABB.NO_HIT; }
+        return SweptAABB.timeOfImpact(prevX[i], prevY[i], width, height,
+                x[i] - prevX[i], y[i] - prevY[i], other.getRect());
+    }
+
+    /**
+     * Resolve a hit found by timeOfImpact(), first moving the enemy back to where it happened.
+     * Only slot i is touched, so different slots may be resolved on different threads.
+     * @param i The enemy's slot.
+     * @param other The Hitbox it hit.
+     * @param toi When during the move it hit, from 0 to 1.
+     * @param out Where to queue damage and score.
+     */
+    public void resolveCollision(int i, Hitbox other, float toi, GameEventQueue out) {
+        if (falling[i]) { return; }
+        x[i] = prevX[i] + (int) ((x[i] - prevX[i]) * toi);
+        y[i] = prevY[i] + (int) ((y[i] - prevY[i]) * toi);
+        updateBounds(i);
+        resolveCollision(i, other, out);
+    }
+
+    /**
+     * Resolves hitbox-based collisions for hitboxes on the layers
+     * PLAYER_HURTBOX (damage the player) or
+     * PLAYER_ATTACK (get knocked back).
+     * @param i The enemy's slot.
+     * @param other The Hitbox colliding with the enemy.
+     */
+    public void resolveCollision(int i, Hitbox other) {
+        resolveCollision(i, other, events);
+    }
+
+    /** Overload for resolveCollision that queues damage and score on a given queue. */
+    private void resolveCollision(int i, Hitbox other, GameEventQueue out) {
+        if (falling[i]) { return; }
+        switch (other.getCategory()) {
+            case CollisionLayers.PLAYER_HURTBOX:
+                out.damage(1);
+                fallInit(i, false, out);
+                break;
+            case CollisionLayers.PLAYER_ATTACK:
+                fallInit(i, true, out);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * When we first begin falling, set our movement vectors to simulate knockback.
+     * Also queue points for the score.
+     * @param i The enemy's slot.
+     * @param knockback Whether or not to apply forceful knockback.
+     * @param out Where to queue the points.
+     */
+    private void fallInit(int i, boolean knockback, GameEventQueue out) {
+        falling[i] = true;
+        anim[i] = ANIM_FALL;
+        animStart[i] = time;
+        out.score(10);
+        if (knockback) {
+            vx[i] *= -6;
+        } else {
+            vx[i] *= -0.5;
+        }
+    }
+
+    /**
+     * Mark an enemy for removal at the start of the next tick;
+     * called by EnemyLifecycle when the world applies a DESPAWN event.
+     * @param i The enemy's slot.
+     * @return False if it was already marked.
+     */
+    public boolean despawn(int i) {
+        if (dead[i]) { return false; }
+        dead[i] = true;
+        despawned++;
+        return true;
+    }
+
+    /**
+     * Remove every enemy marked for removal, sliding the survivors
+     * down so they keep their spawn order.
+     */
+    public void collectGarbage() {
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (dead[i]) { continue; }
+            if (live != i) {
+                x[live] = x[i];
+                y[live] = y[i];
+                prevX[live] = prevX[i];
+                prevY[live] = prevY[i];
+                vx[live] = vx[i];
+                vy[live] = vy[i];
+                falling[live] = falling[i];
+                dead[live] = false;
+                minX[live] = minX[i];
+                minY[live] = minY[i];
+                maxX[live] = maxX[i];
+                maxY[live] = maxY[i];
+                anim[live] = anim[i];
+                animStart[live] = animStart[i];
+                skipped[live] = skipped[i];
+            }
+            live++;
+        }
+        size = live;
+    }
+
+    /**
+     * Write every live enemy, for WorldSnapshot.
+     * @param out Where to write; needs getSaveSize() bytes left.
+     */
+    public void save(ByteBuffer out) {
+        out.putInt(size);
+        out.putFloat(time);
+        out.putLong(ticks);
+        out.putInt(spawned);
+        out.putInt(despawned);
+        putInts(out, x);
+        putInts(out, y);
+        putInts(out, prevX);
+        putInts(out, prevY);
+        putInts(out, anim);
+        putFloats(out, vx);
+        putFloats(out, vy);
+        putFloats(out, animStart);
+        putFloats(out, skipped);
+        for (int i = 0; i < size; i++) {
+            out.put((byte) ((falling[i] ? 1 : 0) | (dead[i] ? 2 : 0)));
+        }
+    }
+
+    /**
+     * Replace every enemy with what save() wrote, growing the arrays if needed.
+     * @param in Where to read.
+     */
+    public void restore(ByteBuffer in) {
+        int count = in.getInt();
+        ensureCapacity(count);
+        size = count;
+        time = in.getFloat();
+        ticks = in.getLong();
+        spawned = in.getInt();
+        despawned = in.getInt();
+        getInts(in, x);
+        getInts(in, y);
+        getInts(in, prevX);
+        getInts(in, prevY);
+        getInts(in, anim);
+        getFloats(in, vx);
+        getFloats(in, vy);
+        getFloats(in, animStart);
+        getFloats(in, skipped);
+        for (int i = 0; i < size; i++) {
+            byte flags = in.get();
+            falling[i] = (flags & 1) != 0;
+            dead[i] = (flags & 2) != 0;
+            updateBounds(i);
+        }
+        peak = Math.max(peak, size);
+    }
+
+    // Bulk copies of the live part of an array; the view buffers share the ByteBuffer's bytes and order.
+    private void putInts(ByteBuffer out, int[] a) {
+        out.asIntBuffer().put(a, 0, size);
+        out.position(out.position() + (size * 4));
+    }
+
+    private void putFloats(ByteBuffer out, float[] a) {
+        out.asFloatBuffer().put(a, 0, size);
+        out.position(out.position() + (size * 4));
+    }
+
+    private void getInts(ByteBuffer in, int[] a) {
+        in.asIntBuffer().get(a, 0, size);
+        in.position(in.position() + (size * 4));
+    }
+
+    private void getFloats(ByteBuffer in, float[] a) {
+        in.asFloatBuffer().get(a, 0, size);
+        in.position(in.position() + (size * 4));
+    }
+
+    /**
+     * Fill in an Entity-style view of one enemy. The view is a copy;
+     * collisions resolved through it are written back to the store.
+     * @param i The enemy's slot.
+     * @param out The view to fill.
+     * @return out, for chaining.
+     */
+    public Enemy view(int i, Enemy out) {
+        out.bind(this, i, x[i], y[i], prevX[i], prevY[i], vx[i], vy[i], falling[i]);
+        return out;
+    }
+
+    /** Recalculate the bounds of a slot from its position. */
+    private void updateBounds(int i) {
+        minX[i] = x[i];
+        minY[i] = y[i];
+        maxX[i] = x[i] + width;
+        maxY[i] = y[i] + height;
+    }
+
+    /** (Re)allocate every array with room for capacity slots, keeping live ones. */
+    private void allocate(int capacity) {
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        prevX = grow(prevX, capacity);
+        prevY = grow(prevY, capacity);
+        vx = grow(vx, capacity);
+        vy = grow(vy, capacity);
+        falling = grow(falling, capacity);
+        dead = grow(dead, capacity);
+        minX = grow(minX, capacity);
+        minY = grow(minY, capacity);
+        maxX = grow(maxX, capacity);
+        maxY = grow(maxY, capacity);
+        anim = grow(anim, capacity);
+        animStart = grow(animStart, capacity);
+        skipped = grow(skipped, capacity);
+    }
+
+    private int[] grow(int[] old, int capacity) {
+        int[] grown = new int[capacity];
+        if (old != null) { System.arraycopy(old, 0, grown, 0, size); }
+        return grown;
+    }
+
+    private float[] grow(float[] old, int capacity) {
+        float[] grown = new float[capacity];
+        if (old != null) { System.arraycopy(old, 0, grown, 0, size); }
+        return grown;
+    }
+
+    private boolean[] grow(boolean[] old, int capacity) {
+        boolean[] grown = new boolean[capacity];
+        if (old != null) { System.arraycopy(old, 0, grown, 0, size); }
+        return grown;
+    }
+
+    /** GETTERS */
+    public int size() { return size; }
+    public int getX(int i) { return x[i]; }
+    public int getY(int i) { return y[i]; }
+    public int getPrevX(int i) { return prevX[i]; }
+    public int getPrevY(int i) { return prevY[i]; }
+    public boolean isFalling(int i) { return falling[i]; }
+    public float getMinX(int i) { return minX[i]; }
+    public float getMinY(int i) { return minY[i]; }
+    public float getMaxX(int i) { return maxX[i]; }
+    public float getMaxY(int i) { return maxY[i]; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getMask() { return MASK; }
+    /**
+     * Get the position to draw an enemy at between its last two moves.
+     * @param alpha 0 for the previous position, 1 for the current one.
+     */
+    public float getDrawX(int i, float alpha) { return prevX[i] + ((x[i] - prevX[i]) * alpha); }
+    public float getDrawY(int i, float alpha) { return prevY[i] + ((y[i] - prevY[i]) * alpha); }
+    public int getAnim(int i) { return anim[i]; }
+    /** Seconds since an enemy's current clip started. */
+    public float getAnimTime(int i) { return time - animStart[i]; }
+    public int getCapacity() { return x.length; }
+    /** Bytes save() writes now. */
+    public int getSaveSize() { return 24 + (size * SAVE_BYTES); }
+    public int getSpawned() { return spawned; }
+    public int getDespawned() { return despawned; }
+    public int getPeak() { return peak; }
+    public int getGrows() { return grows; }
+    /** Enemy moves skipped outside the active region in the last tick. */
+    public int getOffscreenSkips() { return offscreenSkips; }
+}
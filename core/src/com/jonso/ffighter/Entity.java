@@ -1,6 +1,6 @@
 package com.jonso.ffighter;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 
 import org.w3c.dom.css.Rect;
@@ -20,35 +20,80 @@ import org.w3c.dom.css.Rect;
 public abstract class Entity {
 
     protected int x, y; // POSITION
+    protected int prevX, prevY; // POSITION BEFORE THE LAST MOVE, FOR INTERPOLATION
     protected int width, height; // SIZE
     protected float vx, vy; // VELOCITY
-    protected Texture sprite; // SPRITE
+    protected TextureRegion sprite; // SPRITE
 
     private Rectangle rect; // Rectangle for collisions.
+    protected int category; // Collision layer; see CollisionLayers.
+    protected int mask; // Collision layers this entity reacts to.
 
     /**
-     * Constructor for an entity that takes in a Texture,
+     * Constructor for an entity that takes in a TextureRegion,
      * initial position, and then calculates a rectangle
      * based on them.
-     * @param sprite Texture.
+     * @param sprite TextureRegion, usually from the sprite atlas.
      * @param x Init X position.
      * @param y Init Y position.
      */
-    public Entity(Texture sprite, int x, int y) {
+    public Entity(TextureRegion sprite, int x, int y) {
+        this(sprite, x, y, sprite.getRegionWidth(), sprite.getRegionHeight());
+    }
+
+    /**
+     * Constructor for an entity with an explicit size, so it can
+     * exist without a loaded texture (e.g. in a headless simulation).
+     * @param sprite TextureRegion; may be null if the entity is never drawn.
+     * @param x Init X position.
+     * @param y Init Y position.
+     * @param width Width of the entity.
+     * @param height Height of the entity.
+     */
+    public Entity(TextureRegion sprite, int x, int y, int width, int height) {
         this.sprite = sprite;
         this.x = x;
         this.y = y;
-        width = sprite.getWidth();
-        height = sprite.getHeight();
+        this.prevX = x;
+        this.prevY = y;
+        this.width = width;
+        this.height = height;
         this.rect = new Rectangle(x, y, width, height);
     }
 
+    /**
+     * Place the entity at a new position, keeping the rectangle updated,
+     * with no movement to interpolate from. Used when an Enemy view is
+     * bound to another EnemyStore slot.
+     * @param x New X position.
+     * @param y New Y position.
+     */
+    protected void setPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+        this.prevX = x;
+        this.prevY = y;
+        rect.set(x, y, width, height);
+    }
+
+    /**
+     * Put the entity on a collision layer, reacting to whatever
+     * that layer reacts to in the CollisionLayers matrix.
+     * @param category A category from CollisionLayers.
+     */
+    protected void setLayer(int category) {
+        this.category = category;
+        this.mask = CollisionLayers.maskOf(category);
+    }
+
     /**
      * Move by x and y velocity and deltaTime, and
      * keep the rectangle updated.
      * @param delta The amount of time from the previous frame to now.
      */
     public void move(float delta) {
+        prevX = x;
+        prevY = y;
         x += (delta * vx);
         y += (delta * vy);
         rect.set(x, y, width, height);
@@ -76,11 +121,21 @@ public abstract class Entity {
     public void resolveCollision(Hitbox other) { }
 
     /** Getters */
-    public Texture getSprite() { return sprite; }
+    public TextureRegion getSprite() { return sprite; }
     public int getX() { return x; }
     public int getY() { return y; }
     /** Get the center X and Y of this entity. */
     public int getCX() { return x + (width/2); }
     public int getCY() { return y + (height/2); }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    /**
+     * Get the position to draw at between the last two moves.
+     * @param alpha 0 for the previous position, 1 for the current one.
+     */
+    public float getDrawX(float alpha) { return prevX + ((x - prevX) * alpha); }
+    public float getDrawY(float alpha) { return prevY + ((y - prevY) * alpha); }
     public Rectangle getRect() { return rect; }
+    public int getCategory() { return category; }
+    public int getMask() { return mask; }
 }
@@ -2,27 +2,44 @@ package com.jonso.ffighter;
 
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Game;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
 
 /**
  * Handles initializing the Title Screen.
- * Contains the SpriteBatch as well as the default font to draw with.
+ * Contains the SpriteBatch, the default font to draw with, and
+ * the AssetManager every screen loads its assets through.
  * @author Jonathan So
  */
 public class FFighter extends Game {
 
 	public SpriteBatch batch;
 	public BitmapFont font;
-	
+	public AssetManager assets;
+
+	// SIMULATION SETTINGS; launchers may change these before create().
+	public int tickRate = 60; // Game logic updates per second.
+	public int maxTicksPerFrame = 5; // Most updates a single frame may run.
+	public boolean debug = false; // Start with the debug overlay shown (toggle with F1).
+	public String recordFile = null; // Record the run to this local file (see Replay).
+	public String replayFile = null; // Play this local replay file instead of reading the keyboard.
+	public String wavesFile = null; // Play this internal wave script on top of the endless spawners.
+	public String hordeCurve = null; // Play horde mode along this HordeCurve; null for the normal game.
+	public ChunkRunner chunkRunner = null; // Runs enemy work in parallel; null to run it sequentially. Disposed, if Disposable, when the game closes.
+	public float inputBuffer = 0.15f; // Seconds a press waits for the player to be able to attack.
+	public TelemetryRing telemetry = null; // Log session metrics here; null for none.
+	public Disposable telemetryWriter = null; // Drains the telemetry; disposed, to flush it, when the game closes.
+	public int offscreenInterval = 1; // Move off-screen enemies every this many ticks; 1 for every tick.
 
 	public void create () {
 		batch = new SpriteBatch();
 		font = new BitmapFont();
-		this.setScreen(new GameScreen(this));
+		assets = new AssetManager();
+		assets.setLoader(AttackTable.class, new AttackTableLoader(new InternalFileHandleResolver()));
+		this.setScreen(new TitleScreen(this));
 	}
 
 	public void render () {
@@ -30,7 +47,17 @@ public class FFighter extends Game {
 	}
 
 	public void dispose () {
+		if (getScreen() != null) {
+			getScreen().dispose();
+		}
 		batch.dispose();
 		font.dispose();
+		assets.dispose();
+		if (telemetryWriter != null) {
+			telemetryWriter.dispose();
+		}
+		if (chunkRunner instanceof Disposable) {
+			((Disposable) chunkRunner).dispose(); // e.g. stop a thread pool's workers.
+		}
 	}
 }
@@ -0,0 +1,64 @@
+package com.jonso.ffighter;
+
+/**
+ * Watches frame times against the 60 and 30 fps budgets (16.6 and
+ * 33.3 ms) and remembers how many enemies were alive when the average
+ * frame time first went over each. The average is over the last WINDOW
+ * frames, so one slow frame (e.g. a GC pause) doesn't count. The times
+ * given should be the work each frame did, not the time between frames,
+ * which vsync or a frame rate cap would pad up to the budget.
+ *
+ * @author Jonathan So
+ */
+public class FrameBudgetMonitor {
+
+    public static final float[] BUDGETS = { 0.0166f, 0.0333f }; // Seconds.
+
+    private final int WINDOW = 30; // Frames averaged.
+
+    private float[] times; // Ring of the last WINDOW frame times.
+    private int head; // Where the next time goes.
+    private int count; // Frame times recorded, up to WINDOW.
+    private float sum; // Sum of the times in the ring.
+
+    private int[] crossedAt; // Enemy count each budget was first crossed at; -1 if it hasn't been.
+    private int peakEnemies; // Most enemies seen.
+
+    /** Constructor for the monitor. */
+    public FrameBudgetMonitor() {
+        times = new float[WINDOW];
+        crossedAt = new int[BUDGETS.length];
+        for (int i = 0; i < crossedAt.length; i++) { crossedAt[i] = -1; }
+    }
+
+    /**
+     * Record a frame.
+     * @param frameTime How long the frame's work took, in seconds.
+     * @param enemies Enemies alive during it.
+     * @return The index in BUDGETS of a budget first crossed on this frame, or -1.
+     */
+    public int update(float frameTime, int enemies) {
+        sum += frameTime - times[head];
+        times[head] = frameTime;
+        head = (head + 1) % WINDOW;
+        count = Math.min(count + 1, WINDOW);
+        peakEnemies = Math.max(peakEnemies, enemies);
+        if (count < WINDOW) { return -1; }
+        float average = sum / WINDOW;
+        int crossed = -1;
+        for (int i = 0; i < BUDGETS.length; i++) {
+            if (crossedAt[i] < 0 && average > BUDGETS[i]) {
+                crossedAt[i] = enemies;
+                crossed = i;
+            }
+        }
+        return crossed;
+    }
+
+    /** GETTERS */
+    /** Enemy count a budget was first crossed at, or -1 if it hasn't been. */
+    public int getCrossedAt(int budget) { return crossedAt[budget]; }
+    public int getPeakEnemies() { return peakEnemies; }
+    /** Average frame time over the window, in seconds. */
+    public float getAverage() { return count == 0 ? 0 : sum / count; }
+}
@@ -0,0 +1,172 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+/**
+ * Lightweight per-phase timing of each frame. Code calls mark() where
+ * timing starts and lap(phase) at the end of each phase, which adds the
+ * nanoseconds since the previous mark or lap to that phase. endFrame()
+ * then copies the frame's totals, with the entity and hitbox counts,
+ * into fixed-size ring buffers, so recording never allocates and only
+ * the last CAPACITY frames are kept.
+ *
+ * A phase may be lapped several times in a frame (e.g. once per tick
+ * when a frame runs more than one); its time is the sum.
+ *
+ * While disabled, mark(), lap() and endFrame() return straight away.
+ *
+ * @author Jonathan So
+ */
+public class FrameProfiler {
+
+    // PHASES
+    public static final int CLEAR = 0; // Clearing the screen and updating the camera.
+    public static final int INPUT = 1; // Polling and applying input.
+    public static final int GARBAGE = 2; // Removing dead entities.
+    public static final int MOVE = 3; // Moving entities and enemies.
+    public static final int COLLIDE = 4; // Broadphase and narrowphase.
+    public static final int TIMERS = 5; // Spawner and player timers.
+    public static final int EVENTS = 6; // Applying the tick's game events.
+    public static final int DRAW = 7; // Drawing entities.
+    public static final int HUD = 8; // Laying out and drawing the HUD.
+    public static final int DEBUG = 9; // Drawing the debug overlay.
+    public static final int PHASE_COUNT = 10;
+    private static final String[] NAMES = {
+            "clear", "input", "garbage", "move", "collide", "timers", "events", "draw", "hud", "debug" };
+
+    public static final int CAPACITY = 1024; // Frames kept.
+
+    private boolean enabled;
+
+    // CURRENT FRAME
+    private long last; // Time of the last mark or lap.
+    private long[] current; // Nanoseconds spent in each phase so far this frame.
+
+    // RING BUFFERS, one entry per recorded frame.
+    private long[][] samples; // [phase][frame] nanoseconds.
+    private int[] entityCounts;
+    private int[] hitboxCounts;
+    private int[] renderCalls;
+    private int head; // Where the next frame goes.
+    private int count; // How many frames are recorded, up to CAPACITY.
+    private long frames; // Frames ever recorded.
+
+    private long[] sorted; // Scratch for percentiles.
+
+    /**
+     * Constructor for the profiler; allocates every buffer up front.
+     * @param enabled Whether or not to start recording straight away.
+     */
+    public FrameProfiler(boolean enabled) {
+        this.enabled = enabled;
+        current = new long[PHASE_COUNT];
+        samples = new long[PHASE_COUNT][CAPACITY];
+        entityCounts = new int[CAPACITY];
+        hitboxCounts = new int[CAPACITY];
+        renderCalls = new int[CAPACITY];
+        sorted = new long[CAPACITY];
+    }
+
+    /** Start timing from now; the next lap() measures from here. */
+    public void mark() {
+        if (!enabled) { return; }
+        last = TimeUtils.nanoTime();
+    }
+
+    /**
+     * Add the time since the last mark or lap to a phase.
+     * @param phase One of the phase constants.
+     */
+    public void lap(int phase) {
+        if (!enabled) { return; }
+        long now = TimeUtils.nanoTime();
+        current[phase] += now - last;
+        last = now;
+    }
+
+    /**
+     * Record the frame's phase times and counts, then start a new frame.
+     * @param entities Live entities, including enemies.
+     * @param hitboxes Hitboxes checked this frame.
+     * @param calls Draw calls the batch made this frame.
+     */
+    public void endFrame(int entities, int hitboxes, int calls) {
+        if (!enabled) { return; }
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            samples[p][head] = current[p];
+            current[p] = 0;
+        }
+        entityCounts[head] = entities;
+        hitboxCounts[head] = hitboxes;
+        renderCalls[head] = calls;
+        head = (head + 1) % CAPACITY;
+        count = Math.min(count + 1, CAPACITY);
+        frames++;
+    }
+
+    /**
+     * Get a percentile of one phase's time over the recorded frames.
+     * @param phase One of the phase constants.
+     * @param percentile From 0 to 100; e.g. 50 for the median.
+     * @return Nanoseconds, or 0 if nothing is recorded.
+     */
+    public long getPercentile(int phase, float percentile) {
+        if (count == 0) { return 0; }
+        System.arraycopy(samples[phase], 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int i = (int) ((count - 1) * (percentile / 100f));
+        return sorted[i];
+    }
+
+    /**
+     * Write every recorded frame, oldest first, as CSV: a header, then one row per frame
+     * with the frame number, each phase in nanoseconds, and the counts.
+     * @param file Where to write; overwritten.
+     */
+    public void exportCsv(FileHandle file) {
+        StringBuilder csv = new StringBuilder((PHASE_COUNT + 4) * 8 * (count + 1));
+        csv.append("frame");
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            csv.append(',').append(NAMES[p]).append("_ns");
+        }
+        csv.append(",entities,hitboxes,render_calls\n");
+        int oldest = (head - count + CAPACITY) % CAPACITY;
+        for (int n = 0; n < count; n++) {
+            int i = (oldest + n) % CAPACITY;
+            csv.append(frames - count + n);
+            for (int p = 0; p < PHASE_COUNT; p++) {
+                csv.append(',').append(samples[p][i]);
+            }
+            csv.append(',').append(entityCounts[i]);
+            csv.append(',').append(hitboxCounts[i]);
+            csv.append(',').append(renderCalls[i]).append('\n');
+        }
+        file.writeString(csv.toString(), false);
+    }
+
+    /** Forget every recorded frame. */
+    public void reset() {
+        head = 0;
+        count = 0;
+        Arrays.fill(current, 0);
+    }
+
+    /** Turn recording on or off; turning it on starts from an empty frame. */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) { Arrays.fill(current, 0); }
+        this.enabled = enabled;
+    }
+
+    /** GETTERS */
+    public boolean isEnabled() { return enabled; }
+    public static String getName(int phase) { return NAMES[phase]; }
+    public int getCount() { return count; }
+    public long getFrames() { return frames; }
+    /** Counts from the most recently recorded frame. */
+    public int getLastEntities() { return count == 0 ? 0 : entityCounts[(head - 1 + CAPACITY) % CAPACITY]; }
+    public int getLastHitboxes() { return count == 0 ? 0 : hitboxCounts[(head - 1 + CAPACITY) % CAPACITY]; }
+    public int getLastRenderCalls() { return count == 0 ? 0 : renderCalls[(head - 1 + CAPACITY) % CAPACITY]; }
+}
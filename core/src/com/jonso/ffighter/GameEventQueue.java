@@ -0,0 +1,147 @@
+package com.jonso.ffighter;
+
+/**
+ * A queue of game events (damage, score, despawn, spawn) written while
+ * a tick runs and applied all at once at the end of it. Entities and
+ * spawners only push events, so they don't need a reference to the
+ * world, and nothing changes the score or the entity lists halfway
+ * through a collision loop.
+ *
+ * Events are stored as ints in a ring of parallel arrays, allocated
+ * up front; the ring only grows if a tick pushes more events than it
+ * has ever had room for, so it stops allocating once warmed up.
+ * Read events back with next(), then getType() and getA()..getC().
+ *
+ * @author Jonathan So
+ */
+public class GameEventQueue {
+
+    // EVENT TYPES
+    public static final int DAMAGE = 0; // a: damage taken.
+    public static final int SCORE = 1; // a: points scored.
+    public static final int DESPAWN = 2; // a: enemy slot to remove, b: reason (see EnemyLifecycle).
+    public static final int SPAWN = 3; // a: side, b: lane, c: archetype.
+
+    // RING, one entry per event.
+    private int[] types;
+    private int[] as, bs, cs; // Arguments.
+    private int mask; // Capacity - 1; capacity is a power of two.
+    private int head; // Oldest event.
+    private int size; // Events queued.
+
+    // THE EVENT LAST READ WITH next()
+    private int type, a, b, c;
+
+    // STATISTICS
+    private int peak; // Most events queued at once.
+    private int grows; // Times the ring had to grow.
+
+    /**
+     * Constructor for the queue.
+     * @param capacity How many events fit before it grows; rounded up to a power of two.
+     */
+    public GameEventQueue(int capacity) {
+        int size = 1;
+        while (size < capacity) { size <<= 1; }
+        allocate(size);
+    }
+
+    /**
+     * Add an event to the back of the queue.
+     * @param type One of the event types.
+     * @param a First argument.
+     * @param b Second argument.
+     * @param c Third argument.
+     */
+    public void push(int type, int a, int b, int c) {
+        if (size == types.length) {
+            allocate(types.length * 2);
+            grows++;
+        }
+        int i = (head + size) & mask;
+        types[i] = type;
+        as[i] = a;
+        bs[i] = b;
+        cs[i] = c;
+        size++;
+        peak = Math.max(peak, size);
+    }
+
+    /** Queue damage to the player. */
+    public void damage(int amount) { push(DAMAGE, amount, 0, 0); }
+
+    /** Queue points for the score. */
+    public void score(int points) { push(SCORE, points, 0, 0); }
+
+    /** Queue an enemy's removal, for one of EnemyLifecycle's reasons. */
+    public void despawn(int slot, int reason) { push(DESPAWN, slot, reason, 0); }
+
+    /** Queue a new enemy. */
+    public void spawn(int side, int lane, int archetype) { push(SPAWN, side, lane, archetype); }
+
+    /**
+     * Take the event at the front of the queue, so its type and
+     * arguments can be read with the getters.
+     * @return False if the queue was empty.
+     */
+    public boolean next() {
+        if (size == 0) { return false; }
+        type = types[head];
+        a = as[head];
+        b = bs[head];
+        c = cs[head];
+        head = (head + 1) & mask;
+        size--;
+        return true;
+    }
+
+    /**
+     * Move every queued event, in order, onto the back of another queue,
+     * e.g. to merge per-chunk queues into the world's.
+     * @param target The queue to move them onto.
+     */
+    public void drainTo(GameEventQueue target) {
+        while (next()) {
+            target.push(type, a, b, c);
+        }
+    }
+
+    /** Drop every queued event. */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /** (Re)allocate the ring with room for capacity events, keeping queued ones in order. */
+    private void allocate(int capacity) {
+        int[] newTypes = new int[capacity];
+        int[] newAs = new int[capacity];
+        int[] newBs = new int[capacity];
+        int[] newCs = new int[capacity];
+        for (int n = 0; n < size; n++) {
+            int i = (head + n) & mask;
+            newTypes[n] = types[i];
+            newAs[n] = as[i];
+            newBs[n] = bs[i];
+            newCs[n] = cs[i];
+        }
+        types = newTypes;
+        as = newAs;
+        bs = newBs;
+        cs = newCs;
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    /** GETTERS */
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    /** Type and arguments of the event last taken with next(). */
+    public int getType() { return type; }
+    public int getA() { return a; }
+    public int getB() { return b; }
+    public int getC() { return c; }
+    public int getCapacity() { return types.length; }
+    public int getPeak() { return peak; }
+    public int getGrows() { return grows; }
+}
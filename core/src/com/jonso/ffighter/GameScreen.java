@@ -4,208 +4,299 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.ScreenUtils;
-
-import java.util.ArrayList;
+import com.badlogic.gdx.utils.TimeUtils;
 
 /**
- * The main screen of the game. Handles a lot of the
- * game logic, camera, and entity spawning/management.
+ * The main screen of the game. Handles the camera, input and
+ * drawing, and steps the GameWorld (the game logic) at a fixed rate.
+ * If the launcher set FFighter.recordFile, the run is recorded there
+ * when the game closes; if it set FFighter.replayFile, that replay is
+ * played back instead of reading the keyboard, until it ends, with the
+ * horde, wave and off-screen settings it was recorded with. If it set
+ * FFighter.wavesFile, that wave script plays on top of the spawners. If
+ * it set FFighter.hordeCurve, the game runs in horde mode, reporting the
+ * enemy counts at which frames went over the 60 and 30 fps budgets.
+ * If it set FFighter.telemetry, the session's metrics are logged there.
+ * Only sprites inside the camera's view are drawn; if it set
+ * FFighter.offscreenInterval above 1, enemies outside the view are
+ * also only moved every that many ticks.
  * @author Jonathan So
  */
 public class GameScreen implements Screen {
     final FFighter game;
 
     private OrthographicCamera camera;
-    private ShapeRenderer shapeRenderer; // For hitbox drawing
+    private ViewCuller culler; // Skips drawing what's outside the camera's view.
+    private DebugRenderer debugRenderer; // For hitbox drawing
+    private Hud hud; // Score and help text
+    private FrameProfiler profiler; // Times each phase of a frame
+    private ProfilerOverlay profilerOverlay; // Shows the profiler's timings
 
     // ASSETS
-    // Textures
-    private Texture playerTX;
-    private Texture enemyTX;
+    // Every sprite is packed into one atlas page, so entities draw in one batch.
+    private TextureAtlas atlas;
+    private TextureRegion playerTX;
+    private TextureRegion enemyTX;
+    private AnimSet enemyAnims; // Clips shared by every enemy.
+    private AttackTable attacks; // Every attack, and the key for each.
+
+    // SIMULATION
+    private GameWorld world;
 
-    // ENTITIES AND HITBOXES
-    private ArrayList<Entity> entities;
-    private ArrayList<Entity> removeList;
-    private ArrayList<Hitbox> hitboxes;
+    // INPUT
+    private InputQueue keyboard; // Attacks pressed on the keyboard, from key events.
+    private ReplayRecorder recorder; // Records the keyboard; null if not recording.
+    private ReplayPlayer replayPlayer; // Plays a replay; null if not replaying.
 
-    private Player player;
+    private final String PROFILE_CSV = "profile.csv"; // Where F3 writes the profiler's frames.
 
-    // Spawners.
-    private Spawner lSpawn, rSpawn;
+    // HORDE MODE
+    private FrameBudgetMonitor budgets; // Tracks frame time against enemy count; null outside horde mode.
+    private long frameStart; // When this frame's render started, in nanoseconds.
+    private float frameWork; // Time the last frame's render took, in seconds; excludes vsync and sleeps.
 
-    // SCREEN PROPERTIES
-    private int WIDTH = 1024;
-    private int HEIGHT = 512;
+    // FIXED TIMESTEP
+    private float tickTime; // Length of one tick, in seconds.
+    private float accumulator; // Frame time not yet simulated.
 
-    // GAME PROPS
-    private int health = 1;
-    private int hits = 0;
-    private int score = 0;
+    private int offscreenInterval; // The launcher's, or the replay's when playing one.
 
     /**
-     * Load assets, create entities with assets, and start the game.
+     * Fetch assets, create entities with assets, and start the game.
+     * The assets must already be loaded (see TitleScreen).
      * @param game The FFighter object, passed from the previous screen.
      */
     public GameScreen(final FFighter game) {
         this.game = game;
-        // LOAD ASSETS
-        playerTX = new Texture(Gdx.files.internal("playertemp.png"));
-        enemyTX = new Texture(Gdx.files.internal("basicenemy.png"));
+        tickTime = 1f / game.tickRate;
+        // FETCH ASSETS
+        atlas = game.assets.get(Assets.ATLAS, TextureAtlas.class);
+        playerTX = atlas.findRegion(Assets.PLAYER);
+        enemyTX = atlas.findRegion(Assets.ENEMY);
+        enemyAnims = Assets.enemyAnims(atlas);
+        attacks = game.assets.get(Assets.ATTACKS, AttackTable.class);
 
         // CREATE AND SETUP CAMERA
         camera = new OrthographicCamera();
-        camera.setToOrtho(false, WIDTH, HEIGHT);
-
-        // CREATE AND SETUP SHAPE RENDERER
-        shapeRenderer = new ShapeRenderer();
-
-        // CREATE ENTITIES
-        entities = new ArrayList<Entity>();
-        removeList = new ArrayList<Entity>();
-        player = new Player(playerTX, (WIDTH / 2) - (playerTX.getWidth() / 2), HEIGHT / 3);
-        entities.add(player);
-        // Create spawners
-        lSpawn = new Spawner(-enemyTX.getWidth(), HEIGHT / 3, playerTX.getHeight() / 3, this);
-        rSpawn = new Spawner(WIDTH, HEIGHT / 3, playerTX.getHeight() / 3, this);
-        // Create hitboxes
-        hitboxes = new ArrayList<Hitbox>();
+        camera.setToOrtho(false, GameWorld.WIDTH, GameWorld.HEIGHT);
+        culler = new ViewCuller();
+
+        // CREATE HUD
+        hud = new Hud(game.font);
+
+        // CREATE DEBUG OVERLAY
+        debugRenderer = new DebugRenderer(game.debug);
+
+        // CREATE THE PROFILER
+        profiler = new FrameProfiler(false);
+        profilerOverlay = new ProfilerOverlay(game.font, profiler);
+
+        // CREATE THE SIMULATION
+        long seed = TimeUtils.millis();
+        String hordeCurve = game.hordeCurve;
+        String wavesFile = game.wavesFile;
+        offscreenInterval = game.offscreenInterval;
+        Replay replay = null;
+        if (game.replayFile != null) {
+            replay = Replay.read(Gdx.files.local(game.replayFile));
+            seed = replay.getSeed();
+            tickTime = 1f / replay.getTickRate();
+            if (replay.hasSettings()) {
+                // Play back as recorded, whatever the launcher was given.
+                hordeCurve = replay.getHordeCurve();
+                wavesFile = replay.getWavesFile();
+                offscreenInterval = replay.getOffscreenInterval();
+            }
+        }
+        world = new GameWorld(playerTX, enemyTX, attacks, seed);
+        world.setProfiler(profiler);
+        world.setChunkRunner(game.chunkRunner);
+        world.setTelemetry(game.telemetry);
+        if (hordeCurve != null) {
+            world.startHorde(HordeCurve.parse(hordeCurve));
+            budgets = new FrameBudgetMonitor();
+        }
+        if (wavesFile != null) {
+            world.getScheduler().addScript(new WaveScript(Gdx.files.internal(wavesFile)));
+        }
+
+        // CHOOSE WHERE INPUT COMES FROM
+        keyboard = new InputQueue(attacks, game.inputBuffer);
+        profilerOverlay.setInput(keyboard);
+        if (replay != null) {
+            replayPlayer = new ReplayPlayer(replay);
+            world.setInput(replayPlayer);
+        } else if (game.recordFile != null) {
+            recorder = new ReplayRecorder(keyboard, world, game.tickRate);
+            recorder.getReplay().setSettings(hordeCurve, wavesFile, offscreenInterval);
+            world.setInput(recorder);
+        } else {
+            world.setInput(keyboard);
+        }
     }
 
     /**
-     * The game loop, which will:
-     * 1. Clear the screen and update the camera.
-     * 2. Get rid of any garbage.
-     * 3. Draw all entities.
-     * 4. Process input.
-     * 5. Handle logic.
+     * The frame loop, which will:
+     * 1. Clear the screen and update the camera and its view for culling.
+     * 2. Poll input, to be applied on the next tick.
+     * 3. Run as many fixed-length ticks as the elapsed time calls for.
+     * 4. Draw the entities in view (between their last two positions), hitboxes, and text.
+     * Each phase is timed by the FrameProfiler while it's recording (F2).
      *
-     * @param delta Time from the previous update to now.
+     * @param delta Time from the previous frame to now.
      */
     @Override
     public void render(float delta) {
+        frameStart = TimeUtils.nanoTime();
+        profiler.mark();
         // 1. CLEAR THE SCREEN AND UPDATE THE CAMERA
         ScreenUtils.clear(0, 0, 0, 1);
         camera.update();
         game.batch.setProjectionMatrix(camera.combined);
-        shapeRenderer.setProjectionMatrix(camera.combined);
-
-        // 2. GET RID OF ANY GARBAGE.
-        entities.removeAll(removeList);
-        removeList.clear();
+        culler.update(camera);
+        if (offscreenInterval > 1) {
+            world.getEnemies().setActiveRegion(culler.getMinX(), culler.getMinY(), culler.getMaxX(),
+                    culler.getMaxY(), offscreenInterval);
+        }
+        profiler.lap(FrameProfiler.CLEAR);
 
-        // 3. DRAW ALL ENTITIES, HITBOXES, AND TEXT
-        hitboxes.addAll(player.getActive()); // Add hitboxes to draw.
+        // 2. PROCESS INPUT.
+        processInput();
+        profiler.lap(FrameProfiler.INPUT);
+
+        // 3. RUN THE SIMULATION AT A FIXED RATE
+        accumulator += delta;
+        int ticks = 0;
+        while (accumulator >= tickTime && ticks < game.maxTicksPerFrame) {
+            if (replayPlayer != null && replayPlayer.isFinished(world)) {
+                endReplay();
+            }
+            world.tick(tickTime);
+            accumulator -= tickTime;
+            ticks++;
+        }
+        if (accumulator >= tickTime) {
+            // We hit the cap; drop the backlog rather than fall further behind.
+            accumulator %= tickTime;
+        }
+        float alpha = accumulator / tickTime; // How far we are into the next tick.
+        profiler.mark(); // Each tick timed its own phases.
 
+        // 4. DRAW ALL ENTITIES, HITBOXES, AND TEXT
         game.batch.begin();
-        for (Entity ntt : entities) {
-            ntt.move(delta);
-            game.batch.draw(ntt.sprite, ntt.x, ntt.y);
+        for (Entity ntt : world.getEntities()) {
+            float x = ntt.getDrawX(alpha), y = ntt.getDrawY(alpha);
+            if (culler.isVisible(x, y, ntt.getWidth(), ntt.getHeight())) {
+                game.batch.draw(ntt.sprite, x, y);
+            }
         }
+        EnemyStore enemies = world.getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            float x = enemies.getDrawX(i, alpha), y = enemies.getDrawY(i, alpha);
+            if (culler.isVisible(x, y, enemies.getWidth(), enemies.getHeight())) {
+                game.batch.draw(enemyAnims.getSprite(enemies.getAnim(i), enemies.getAnimTime(i)), x, y);
+            }
+        }
+        profilerOverlay.setCulled(culler.getVisible(), culler.getCulled());
+        profiler.lap(FrameProfiler.DRAW);
 
-//        game.font.draw(game.batch, "Hitboxes Count: " + hitboxes.size(), 16, 32);
-//        game.font.draw(game.batch, "Active Hitboxes Count: " + player.getActive().size(), 16, 64);
         // Draw text
-        game.font.draw(game.batch, "Score: " + score, 16, 64);
-        game.font.draw(game.batch, "Times Hit: " + hits, 16, 96);
-        game.font.draw(game.batch, "D | F | V  and  K | J | N for Hi, Mid, Low attacks respectively.", 16, 128);
-        game.font.draw(game.batch, "Forward Fighter v0.1 by Jonathan So, 2021.", 16, 160);
+        hud.update(world.getScore(), world.getHits());
+        if (budgets != null) { updateHorde(frameWork); }
+        hud.draw(game.batch);
+        profilerOverlay.draw(game.batch);
 
         game.batch.end();
-        // Draw hitboxes
-        for (Hitbox hb : hitboxes) {
-            hb.draw(shapeRenderer);
-        }
-
-        // 4. PROCESS INPUT.
-        processInput();
-
-        // 5. HANDLE GAME LOGIC, LIKE COLLISIONS
-        for (int i = 0; i < entities.size(); i++) {
-            for (int j = 0; j < entities.size(); j++) {
-                entities.get(i).checkCollision(entities.get(j));
-            }
-            for (int j = 0; j < hitboxes.size(); j++) {
-                entities.get(i).checkCollision(hitboxes.get(j));
-            }
+        profiler.lap(FrameProfiler.HUD);
+        // Draw hitboxes and other debug info
+        debugRenderer.draw(camera.combined, world, alpha);
+        profiler.lap(FrameProfiler.DEBUG);
+        profiler.endFrame(world.getEntityCount(), world.getHitboxCount(), game.batch.renderCalls);
+        if (game.telemetry != null) {
+            game.telemetry.log(TelemetryRing.FRAME, (int) world.getTickCount(), (int) (delta * 1000000),
+                    world.getEntityCount());
         }
-        // Update spawner timers.
-        lSpawn.updateTimer(delta);
-        rSpawn.updateTimer(delta);
-        // Update player timers.
-        player.checkTiming(delta);
-
-        // 6. GET RID OF MORE GARBAGE.
-        hitboxes.clear();
+        frameWork = (TimeUtils.nanoTime() - frameStart) / 1000000000f;
     }
 
     /**
-     * Add an enemy at a position and face it towards the player.
-     * @param x Init X position.
-     * @param y Init Y position.
+     * Take user input; F1 cycles the debug overlay, F2 toggles the profiler,
+     * F3 writes the profiler's frames to profile.csv, and Esc quits.
+     * Attack keys (DFV and KJN by default, see attacks.json) don't wait for
+     * this; the InputQueue gets them as key events, until a tick polls them.
      */
-    public void addEnemy(int x, int y) {
-        // Deal with facing here (ternary operator)
-        entities.add(new Enemy(enemyTX, x, y, x < 0 ? 1 : -1, this));
-    }
-
-    /** Add an entity to draw/update. */
-    private void addEntity(Entity toAdd) {
-        entities.add(toAdd);
-    }
-
-    /** Put an entity on our removeList to remove on next update.*/
-    public void removeEntity(Entity toRemove) {
-        removeList.add(toRemove);
+    public void processInput() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F1)) {
+            debugRenderer.cycle();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F2)) {
+            profiler.setEnabled(!profiler.isEnabled());
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3) && profiler.getCount() > 0) {
+            profiler.exportCsv(Gdx.files.local(PROFILE_CSV));
+        }
+        if (Gdx.input.isKeyPressed(Input.Keys.ESCAPE)) {
+            Gdx.app.exit(); // Disposes the screen first, so a recording gets saved.
+        }
     }
 
-    /** Add points to the score; @param toAdd is the amount to add. */
-    public void addToScore(int toAdd) { score += toAdd; }
-
-    /** Update damage values internally. */
-    public void notifyDamage() {
-        health--;
-        hits++;
-        if (health <= 0) {
-            // System.out.println("GAME OVER");
+    /**
+     * Feed the frame time to the budget monitor, log any budget crossed
+     * for the first time, and update the HUD's horde line. The time is the
+     * last frame's work, not delta, since delta also holds the wait for
+     * vsync or the foreground frame rate cap, which would hide the load.
+     * @param work Time the last frame's render took, in seconds.
+     */
+    private void updateHorde(float work) {
+        int enemies = world.getEnemies().size();
+        int crossed = budgets.update(work, enemies);
+        if (crossed >= 0) {
+            Gdx.app.log("Horde", "Average frame time went over " + (FrameBudgetMonitor.BUDGETS[crossed] * 1000)
+                    + " ms at " + enemies + " enemies");
         }
+        hud.updateHorde(enemies, budgets);
     }
 
     /**
-     * Take user input; DFV, KJN, and Esc quits.
+     * Log whether the replay matched the recording, then hand
+     * control back to the keyboard.
      */
-    public void processInput() {
-        if (Gdx.input.isKeyJustPressed(Input.Keys.F)) {
-            player.attack("left", "md");
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.J)) {
-            player.attack("right", "md");
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.D)) {
-            player.attack("left", "hi");
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.K)) {
-            player.attack("right", "hi");
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.V)) {
-            player.attack("left", "lo");
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.N)) {
-            player.attack("right", "lo");
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.ESCAPE)) {
-            System.exit(0);
+    private void endReplay() {
+        if (replayPlayer.matches()) {
+            Gdx.app.log("Replay", "Finished at tick " + world.getTickCount() + ", matching the recording");
+        } else {
+            Gdx.app.log("Replay", "Diverged from the recording at tick " + replayPlayer.getDivergedAt());
         }
+        replayPlayer = null;
+        keyboard.clear(); // Keys pressed during the replay aren't meant for the game.
+        world.setInput(keyboard);
     }
 
-    /** Dispose of any disposable resources. */
+    /** Save any recording, dispose of any disposable resources, and release our assets. */
     @Override
     public void dispose() {
-        playerTX.dispose();
-        shapeRenderer.dispose();
+        if (recorder != null) {
+            recorder.finish(world).write(Gdx.files.local(game.recordFile));
+            recorder = null;
+        }
+        if (budgets != null) {
+            Gdx.app.log("Horde", "Peak " + budgets.getPeakEnemies() + " enemies; over 16.6 ms at "
+                    + budgets.getCrossedAt(0) + ", over 33.3 ms at " + budgets.getCrossedAt(1) + " (-1: never)");
+        }
+        Assets.unloadAll(game.assets);
+        debugRenderer.dispose();
     }
 
+    /** GETTERS */
+    public GameWorld getWorld() { return world; }
+
     /** REQUISITE METHODS */
     @Override
     public void show() {
-
+        Gdx.input.setInputProcessor(keyboard); // Attack keys arrive as events.
     }
 
     @Override
@@ -225,6 +316,6 @@ public class GameScreen implements Screen {
 
     @Override
     public void hide() {
-
+        Gdx.input.setInputProcessor(null);
     }
 }
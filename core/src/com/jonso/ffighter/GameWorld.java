@@ -0,0 +1,571 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * The simulation half of the game: entities, spawners, collisions,
+ * score and damage, stepped one fixed-length tick at a time.
+ * It never touches Gdx.graphics, Gdx.input or any GL resource, so it can
+ * run without a window (sprites may be null; only their sizes matter).
+ * GameScreen draws it and feeds it input.
+ *
+ * Nothing in the world changes the score, health or enemy list while a
+ * tick is running; enemies and spawners push GameEvents instead, and
+ * the tick applies them all at its end (see GameEventQueue).
+ *
+ * Enemies come and go through an EnemyLifecycle, which caps how many
+ * are alive and despawns any that leave the screen by more than
+ * BOUNDS_MARGIN, so enemies nobody hits don't pile up off-screen.
+ *
+ * A world is deterministic: all randomness comes from one generator
+ * seeded at construction, and input arrives through an InputSource
+ * polled at the start of each tick, so the same seed and the same
+ * input on the same ticks always play out the same (see Replay).
+ * Between ticks, the whole state can be saved to a ByteBuffer and
+ * restored, e.g. to roll back (see WorldSnapshot).
+ *
+ * @author Jonathan So
+ */
+public class GameWorld {
+
+    // WORLD PROPERTIES
+    public static final int WIDTH = 1024;
+    public static final int HEIGHT = 512;
+    public static final int LEFT = 0, RIGHT = 1; // Sides enemies enter from.
+    public static final int LANES = 3; // Heights enemies walk at.
+    private final int CELL_SIZE = 128; // Broadphase cell; about two enemies wide.
+    private final int GRID_BUCKETS = 256;
+    private final int ENEMY_CAPACITY = 32; // Enemies with room before the first spawn.
+    private final int EVENT_CAPACITY = 64; // Events with room before the queue grows.
+    public static final int BOUNDS_MARGIN = 256; // How far off-screen enemies may go before despawning.
+    public static final int MAX_ENEMIES = 16384; // Default cap on live enemies.
+
+    // ENTITIES AND HITBOXES
+    private ArrayList<Entity> entities;
+    private ArrayList<Entity> removeList;
+    private ArrayList<Hitbox> hitboxes;
+    private EnemyStore enemies; // Every enemy, packed into arrays.
+    private EnemyLifecycle lifecycle; // Spawns and despawns enemies, within the bounds and cap.
+    private GameEventQueue events; // Written during a tick, applied at its end.
+
+    private Player player;
+
+    // SPAWNING
+    private WaveScheduler scheduler; // Fires spawners and scripted waves when due.
+    private Spawner lSpawn, rSpawn; // The endless spawners on each side.
+    private HordeDirector horde; // Spawns for horde mode; null outside it.
+    private int laneY, laneHeight; // Height of the lowest lane, and between lanes.
+    private int enemyWidth; // For placing enemies just off-screen.
+    private long seed; // Seed for random.
+    private RandomXS128 random; // Every random choice in the world comes from here.
+
+    // BROADPHASE
+    private SpatialHash entityGrid, hitboxGrid; // Refilled every tick.
+    private IntArray candidates; // Ids returned from a broadphase query.
+
+    // GAME PROPS
+    private int health = 1;
+    private int hits = 0;
+    private int score = 0;
+    private long tickCount = 0; // Ticks simulated so far.
+    private int hitboxCount = 0; // Hitboxes checked in the last tick.
+
+    // PARALLELISM
+    private final int CHUNK_SIZE = 512; // Enemies per chunk of work.
+    private ChunkRunner runner = ChunkRunner.SEQUENTIAL; // Runs the chunks.
+    private ArrayList<GameEventQueue> chunkEvents; // Events from each chunk after the first.
+    private ArrayList<IntArray> chunkCandidates; // Broadphase results for each chunk.
+    private ChunkRunner.Task moveChunk, collideChunk; // Work for one chunk.
+    private float chunkDelta; // The tick length, for moveChunk.
+
+    // PROFILING
+    private FrameProfiler profiler; // Times each phase of a tick; null when not profiling.
+    private TelemetryRing telemetry; // Spawns, kills, hits and attacks are logged here; null for none.
+
+    // INPUT
+    private InputSource input; // Polled once per tick; null for none.
+    private int pendingAttack = AttackTable.NONE; // Attack id to apply on the next tick.
+    private long attackLiveAt = -1; // TimeUtils.nanoTime() the last attack's hitbox was first checked; for latency only.
+
+    /**
+     * Create a world whose entity sizes come from their sprites.
+     * @param playerTX Sprite for the player.
+     * @param enemyTX Sprite for the enemies.
+     * @param attacks Every attack the player can do.
+     * @param seed Seed for every random choice in the world.
+     */
+    public GameWorld(TextureRegion playerTX, TextureRegion enemyTX, AttackTable attacks, long seed) {
+        this(playerTX, playerTX.getRegionWidth(), playerTX.getRegionHeight(),
+                enemyTX.getRegionWidth(), enemyTX.getRegionHeight(), attacks, seed);
+    }
+
+    /**
+     * Create a world, place the player and set up the spawners.
+     * @param playerTX Sprite for the player; may be null when nothing is drawn.
+     * @param playerWidth Width of the player.
+     * @param playerHeight Height of the player.
+     * @param enemyWidth Width of an enemy.
+     * @param enemyHeight Height of an enemy.
+     * @param attacks Every attack the player can do.
+     * @param seed Seed for every random choice in the world.
+     */
+    public GameWorld(TextureRegion playerTX, int playerWidth, int playerHeight,
+                     int enemyWidth, int enemyHeight, AttackTable attacks, long seed) {
+        this.seed = seed;
+        random = new RandomXS128(seed);
+        // CREATE ENTITIES
+        entities = new ArrayList<Entity>();
+        removeList = new ArrayList<Entity>();
+        events = new GameEventQueue(EVENT_CAPACITY);
+        enemies = new EnemyStore(enemyWidth, enemyHeight, ENEMY_CAPACITY, events);
+        lifecycle = new EnemyLifecycle(enemies, MAX_ENEMIES);
+        lifecycle.setBounds(-BOUNDS_MARGIN, -BOUNDS_MARGIN, WIDTH + BOUNDS_MARGIN, HEIGHT + BOUNDS_MARGIN);
+        player = new Player(playerTX, (WIDTH / 2) - (playerWidth / 2), HEIGHT / 3,
+                playerWidth, playerHeight, attacks);
+        entities.add(player);
+        // Create the scheduler, with an endless spawner on each side.
+        this.enemyWidth = enemyWidth;
+        laneY = HEIGHT / 3;
+        laneHeight = playerHeight / 3;
+        scheduler = new WaveScheduler(events);
+        lSpawn = new Spawner(LEFT, random);
+        rSpawn = new Spawner(RIGHT, random);
+        scheduler.register(lSpawn);
+        scheduler.register(rSpawn);
+        scheduler.schedule(lSpawn, 0);
+        scheduler.schedule(rSpawn, 0);
+        // Create hitboxes
+        hitboxes = new ArrayList<Hitbox>();
+        // Create broadphase
+        entityGrid = new SpatialHash(CELL_SIZE, GRID_BUCKETS);
+        hitboxGrid = new SpatialHash(CELL_SIZE, GRID_BUCKETS);
+        candidates = new IntArray();
+        // Create chunked enemy work
+        chunkEvents = new ArrayList<GameEventQueue>();
+        chunkCandidates = new ArrayList<IntArray>();
+        moveChunk = new ChunkRunner.Task() {
+            @Override
+            public void run(int chunk) {
+                int from = chunk * CHUNK_SIZE;
+                enemies.move(chunkDelta, from, Math.min(enemies.size(), from + CHUNK_SIZE), chunkQueue(chunk));
+            }
+        };
+        collideChunk = new ChunkRunner.Task() {
+            @Override
+            public void run(int chunk) {
+                collideEnemies(chunk);
+            }
+        };
+    }
+
+    /**
+     * One fixed-length step of game logic, which will:
+     * 0. Poll the InputSource for this tick's action.
+     * 1. Get rid of any garbage.
+     * 2. Move all entities.
+     * 3. Apply the input queued since the last tick, then collect the player's hitboxes,
+     *    so an attack started this tick is collision-checked this tick.
+     * 4. Handle logic, like collisions and timers.
+     * 5. Apply every event queued during the tick, in order.
+     *
+     * @param delta The fixed tick length, in seconds.
+     */
+    public void tick(float delta) {
+        if (profiler != null) { profiler.mark(); }
+        // 0. POLL INPUT.
+        if (input != null) {
+            int attack = input.poll(this);
+            if (attack != AttackTable.NONE) { pendingAttack = attack; }
+        }
+
+        // 1. GET RID OF ANY GARBAGE.
+        collectGarbage();
+        lap(FrameProfiler.GARBAGE);
+
+        // 2. MOVE ALL ENTITIES
+        for (Entity ntt : entities) {
+            ntt.move(delta);
+        }
+        enemies.advance(delta);
+        chunkDelta = delta;
+        runChunks(moveChunk);
+        lap(FrameProfiler.MOVE);
+
+        // 3. APPLY INPUT.
+        boolean attackStarted = false;
+        if (pendingAttack != AttackTable.NONE) {
+            if (player.attack(pendingAttack)) {
+                attackStarted = true;
+                if (telemetry != null) { telemetry.log(TelemetryRing.ATTACK, (int) tickCount, pendingAttack, 0); }
+            }
+            pendingAttack = AttackTable.NONE;
+        }
+        hitboxes.addAll(player.getActive()); // Add hitboxes to check, including one just started.
+        lap(FrameProfiler.INPUT);
+
+        // 4. HANDLE GAME LOGIC, LIKE COLLISIONS
+        handleCollisions();
+        if (attackStarted) { attackLiveAt = TimeUtils.nanoTime(); } // Its hitbox has now been checked.
+        lap(FrameProfiler.COLLIDE);
+        // Queue any spawns now due.
+        scheduler.update(delta);
+        // Update player timers.
+        player.checkTiming(delta);
+        lap(FrameProfiler.TIMERS);
+
+        // 5. APPLY EVENTS, THEN GET RID OF MORE GARBAGE.
+        applyEvents();
+        hitboxCount = hitboxes.size();
+        hitboxes.clear();
+        tickCount++;
+        lap(FrameProfiler.EVENTS);
+    }
+
+    /** Apply every event in the queue, in the order they were pushed, logging them to any telemetry. */
+    private void applyEvents() {
+        while (events.next()) {
+            switch (events.getType()) {
+                case GameEventQueue.DAMAGE:
+                    takeDamage(events.getA());
+                    if (telemetry != null) { telemetry.log(TelemetryRing.HIT, (int) tickCount, events.getA(), hits); }
+                    break;
+                case GameEventQueue.SCORE:
+                    score += events.getA();
+                    if (telemetry != null) { telemetry.log(TelemetryRing.KILL, (int) tickCount, events.getA(), 0); }
+                    break;
+                case GameEventQueue.DESPAWN:
+                    lifecycle.despawn(events.getA(), events.getB());
+                    break;
+                case GameEventQueue.SPAWN:
+                    int slot = spawn(events.getA(), events.getB(), events.getC());
+                    if (telemetry != null && slot >= 0) {
+                        telemetry.log(TelemetryRing.SPAWN, (int) tickCount, slot, enemies.size());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /** Add the time since the last lap to a phase, if profiling. */
+    private void lap(int phase) {
+        if (profiler != null) { profiler.lap(phase); }
+    }
+
+    /**
+     * Fill the broadphase grids, then run the narrowphase only on pairs
+     * that share a cell and whose collision layers interact (see
+     * CollisionLayers). Candidates come back sorted by list index, so
+     * collisions resolve in the same order as checking every pair would.
+     * Enemies are only checked against hitboxes; no layer reacts to
+     * an enemy touching another entity. Enemies are swept along their
+     * move (see SweptAABB); entities and hitboxes don't move fast
+     * enough to need it, so they're checked where they are.
+     */
+    private void handleCollisions() {
+        entityGrid.clear();
+        hitboxGrid.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            entityGrid.insert(i, entities.get(i).getRect());
+        }
+        for (int i = 0; i < hitboxes.size(); i++) {
+            hitboxGrid.insert(i, hitboxes.get(i).getRect());
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            Entity ntt = entities.get(i);
+            if (ntt.getMask() == CollisionLayers.NONE) { continue; } // Reacts to nothing.
+            entityGrid.query(ntt.getRect(), candidates);
+            for (int j = 0; j < candidates.size; j++) {
+                Entity other = entities.get(candidates.get(j));
+                if (CollisionLayers.interacts(ntt.getMask(), other.getCategory())) {
+                    ntt.checkCollision(other);
+                }
+            }
+            hitboxGrid.query(ntt.getRect(), candidates);
+            for (int j = 0; j < candidates.size; j++) {
+                Hitbox hb = hitboxes.get(candidates.get(j));
+                if (CollisionLayers.interacts(ntt.getMask(), hb.getCategory())) {
+                    ntt.checkCollision(hb);
+                }
+            }
+        }
+        if (enemies.getMask() == CollisionLayers.NONE) { return; }
+        runChunks(collideChunk);
+    }
+
+    /**
+     * Check one chunk of enemies against the hitboxes. Each enemy's whole
+     * move is looked up in the grid, and only the hitbox it reached first
+     * is resolved (the lowest index on a tie, as before). Only reads the
+     * grid and hitboxes, and only writes the chunk's own slots, candidates
+     * and events, so chunks may run on different threads at once.
+     * @param chunk Which chunk.
+     */
+    private void collideEnemies(int chunk) {
+        IntArray found = chunkCandidates.get(chunk);
+        GameEventQueue out = chunkQueue(chunk);
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(enemies.size(), from + CHUNK_SIZE);
+        int width = enemies.getWidth(), height = enemies.getHeight();
+        for (int i = from; i < to; i++) {
+            int sweptX = Math.min(enemies.getX(i), enemies.getPrevX(i));
+            int sweptY = Math.min(enemies.getY(i), enemies.getPrevY(i));
+            hitboxGrid.query(sweptX, sweptY,
+                    Math.max(enemies.getX(i), enemies.getPrevX(i)) - sweptX + width,
+                    Math.max(enemies.getY(i), enemies.getPrevY(i)) - sweptY + height, found);
+            Hitbox first = null;
+            float firstToi = 1;
+            for (int j = 0; j < found.size; j++) {
+                Hitbox hb = hitboxes.get(found.get(j));
+                float toi = enemies.timeOfImpact(i, hb);
+                if (toi != SweptAABB.NO_HIT && (first == null || toi < firstToi)) {
+                    first = hb;
+                    firstToi = toi;
+                }
+            }
+            if (first != null) { enemies.resolveCollision(i, first, firstToi, out); }
+        }
+    }
+
+    /**
+     * Split the enemies into chunks of CHUNK_SIZE slots and run a task over
+     * them with the ChunkRunner. The first chunk reports straight into the
+     * world's event queue; the rest into their own, which are then appended
+     * in chunk order, so events come out in slot order whichever runner is used.
+     * @param task The work for each chunk.
+     */
+    private void runChunks(ChunkRunner.Task task) {
+        int chunks = (enemies.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        while (chunkEvents.size() < chunks - 1) { chunkEvents.add(new GameEventQueue(EVENT_CAPACITY)); }
+        while (chunkCandidates.size() < chunks) { chunkCandidates.add(new IntArray()); }
+        runner.run(chunks, task);
+        for (int c = 1; c < chunks; c++) {
+            chunkEvents.get(c - 1).drainTo(events);
+        }
+    }
+
+    /** The event queue a chunk reports into. */
+    private GameEventQueue chunkQueue(int chunk) {
+        return chunk == 0 ? events : chunkEvents.get(chunk - 1);
+    }
+
+    /**
+     * Remember an attack for the next tick; a later one replaces it.
+     * Input queued this way bypasses the InputSource, so it isn't recorded.
+     * @param id The attack's id in the AttackTable.
+     */
+    public void queueAttack(int id) {
+        pendingAttack = id;
+    }
+
+    /**
+     * Add an enemy at a position and face it towards the player,
+     * unless the EnemyLifecycle's cap is reached.
+     * @param x Init X position.
+     * @param y Init Y position.
+     * @return The enemy's slot, or -1 if the cap turned it away.
+     */
+    public int addEnemy(int x, int y) {
+        // Deal with facing here (ternary operator)
+        return lifecycle.spawn(x, y, x < 0 ? 1 : -1);
+    }
+
+    /**
+     * Add an enemy just off-screen on one side, in one lane, facing the player.
+     * @param side LEFT or RIGHT.
+     * @param lane 0 (lowest) to LANES - 1.
+     * @param archetype Which kind of enemy; only EnemyStore.BASIC exists so far.
+     * @return The enemy's slot, or -1 if the cap turned it away.
+     */
+    public int spawn(int side, int lane, int archetype) {
+        return addEnemy(side == LEFT ? -enemyWidth : WIDTH, laneY + (lane * laneHeight));
+    }
+
+    /**
+     * Switch to horde mode: stop the endless spawners and let a
+     * HordeDirector ramp up the crowd along a curve from now on.
+     * @param curve Spawn rate and cap over time.
+     */
+    public void startHorde(HordeCurve curve) {
+        scheduler.cancel(lSpawn);
+        scheduler.cancel(rSpawn);
+        if (horde != null) { scheduler.cancel(horde); }
+        horde = new HordeDirector(curve, enemies, random);
+        scheduler.register(horde);
+        scheduler.schedule(horde, scheduler.getTime());
+    }
+
+    /** Remove everything on the removeList, and every despawned enemy, from play. */
+    private void collectGarbage() {
+        entities.removeAll(removeList);
+        removeList.clear();
+        enemies.collectGarbage();
+    }
+
+    /**
+     * Make room for a number of enemies up front, so spawning
+     * that many never has to grow the enemy arrays mid-game.
+     * @param capacity How many enemies to have room for.
+     */
+    public void reserveEnemies(int capacity) {
+        enemies.ensureCapacity(capacity);
+    }
+
+    /**
+     * Set where gameplay input comes from.
+     * @param input The source to poll each tick, or null for none.
+     */
+    public void setInput(InputSource input) {
+        this.input = input;
+    }
+
+    /**
+     * Hash everything a tick can change: the tick count, score, hits,
+     * and every entity's and enemy's position. Two worlds started with
+     * the same seed and input have the same checksum on every tick.
+     * @return The checksum.
+     */
+    public long getChecksum() {
+        long h = 0xcbf29ce484222325L; // FNV-1a, a word at a time.
+        h = mix(h, tickCount);
+        h = mix(h, score);
+        h = mix(h, hits);
+        for (int i = 0; i < entities.size(); i++) {
+            Entity ntt = entities.get(i);
+            h = mix(h, ntt.getX());
+            h = mix(h, ntt.getY());
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            h = mix(h, enemies.getX(i));
+            h = mix(h, enemies.getY(i));
+            h = mix(h, enemies.isFalling(i) ? 1 : 0);
+        }
+        return h;
+    }
+
+    private static long mix(long h, long v) {
+        return (h ^ v) * 0x100000001b3L;
+    }
+
+    /**
+     * Write everything a tick can change, between ticks: the counters,
+     * score and health, the random generator, the player, every enemy,
+     * and the scheduler. Settings (input, runner, profiler) aren't saved.
+     * @param out Where to write; needs getSaveSize() bytes left.
+     */
+    public void save(ByteBuffer out) {
+        out.putLong(tickCount);
+        out.putInt(score);
+        out.putInt(hits);
+        out.putInt(health);
+        out.putInt(pendingAttack);
+        out.putLong(random.getState(0));
+        out.putLong(random.getState(1));
+        out.put((byte) (horde == null ? 0 : 1));
+        player.save(out);
+        lifecycle.save(out);
+        enemies.save(out);
+        scheduler.save(out);
+    }
+
+    /**
+     * Replace everything a tick can change with what save() wrote, in this
+     * same world or one created with the same settings.
+     * @param in Where to read.
+     */
+    public void restore(ByteBuffer in) {
+        tickCount = in.getLong();
+        score = in.getInt();
+        hits = in.getInt();
+        health = in.getInt();
+        pendingAttack = in.getInt();
+        long s0 = in.getLong();
+        random.setState(s0, in.getLong());
+        if (in.get() == 0 && horde != null) {
+            // Saved before horde mode; take the director off the queue and leave it unused.
+            scheduler.cancel(horde);
+            horde = null;
+        }
+        player.restore(in);
+        lifecycle.restore(in);
+        enemies.restore(in);
+        scheduler.restore(in);
+        events.clear();
+        removeList.clear();
+    }
+
+    /** Upper bound on the bytes save() writes now. */
+    public int getSaveSize() {
+        return 128 + enemies.getSaveSize() + scheduler.getSaveSize();
+    }
+
+    /**
+     * Set what runs chunks of enemy work, e.g. a thread pool on desktop.
+     * Results are the same whichever runner is used.
+     * @param runner The runner, or null for ChunkRunner.SEQUENTIAL.
+     */
+    public void setChunkRunner(ChunkRunner runner) {
+        this.runner = runner == null ? ChunkRunner.SEQUENTIAL : runner;
+    }
+
+    /**
+     * Time each phase of every tick with a profiler.
+     * @param profiler The profiler to record into, or null to stop profiling.
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Log spawns, kills, hits taken and attacks to a telemetry ring.
+     * @param telemetry The ring, or null to stop logging.
+     */
+    public void setTelemetry(TelemetryRing telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    /** Put an entity on our removeList to remove on next tick.*/
+    public void removeEntity(Entity toRemove) {
+        removeList.add(toRemove);
+    }
+
+    /** Update damage values internally; @param amount is the damage taken. */
+    private void takeDamage(int amount) {
+        health -= amount;
+        hits++;
+        if (health <= 0) {
+            // System.out.println("GAME OVER");
+        }
+    }
+
+    /** GETTERS */
+    public ArrayList<Entity> getEntities() { return entities; }
+    public Player getPlayer() { return player; }
+    public EnemyStore getEnemies() { return enemies; }
+    public EnemyLifecycle getLifecycle() { return lifecycle; }
+    /** Live entities, including every enemy. */
+    public int getEntityCount() { return entities.size() + enemies.size(); }
+    public int getScore() { return score; }
+    public int getHits() { return hits; }
+    public long getTickCount() { return tickCount; }
+    public int getHitboxCount() { return hitboxCount; }
+    public long getSeed() { return seed; }
+    public InputSource getInput() { return input; }
+    /**
+     * When the last attack's hitbox was first collision-checked, by TimeUtils.nanoTime();
+     * -1 if none has been. Not part of the checksum.
+     */
+    public long getAttackLiveAt() { return attackLiveAt; }
+    public WaveScheduler getScheduler() { return scheduler; }
+    public GameEventQueue getEvents() { return events; }
+    /** The horde mode director, or null outside horde mode. */
+    public HordeDirector getHorde() { return horde; }
+    public float getCellSize() { return CELL_SIZE; }
+}
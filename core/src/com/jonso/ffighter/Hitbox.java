@@ -13,7 +13,8 @@ import com.badlogic.gdx.graphics.Color;
  */
 public class Hitbox {
 
-    private String tag; // Tag for our hitbox; collision handling.
+    private int category; // Collision layer of our hitbox; see CollisionLayers.
+    private int mask; // Collision layers our hitbox reacts to.
     private Rectangle rect; // Rectangle representation of hitbox.
     private Color col; // Color of our hitbox.
 
@@ -23,30 +24,28 @@ public class Hitbox {
      * @param y Init Y position.
      * @param width Width of the hitbox.
      * @param height Height of the hitbox.
-     * @param tag Hitbox's tag for collision handling.
+     * @param category Hitbox's collision layer, from CollisionLayers.
      */
-    public Hitbox(int x, int y, int width, int height, String tag) {
-        this.rect = new Rectangle(x, y, width, height);
-        this.tag = tag;
-        col = Color.GREEN;
+    public Hitbox(int x, int y, int width, int height, int category) {
+        this(x, y, width, height, Color.GREEN, category);
     }
 
     /** Similar to the default constructor, but color is specified here. */
-    public Hitbox(int x, int y, int width, int height, Color col, String tag) {
+    public Hitbox(int x, int y, int width, int height, Color col, int category) {
         this.rect = new Rectangle(x, y, width, height);
         this.col = col;
-        this.tag = tag;
+        this.category = category;
+        this.mask = CollisionLayers.maskOf(category);
     }
 
     /**
      * Draws a representation of the hitbox using ShapeRenderer.
+     * The caller begins and ends the ShapeRenderer (in Line mode) and
+     * sets its color, so many hitboxes can share one batch.
      * @param sr ShapeRenderer we're drawing our hitbox with.
      */
     public void draw(ShapeRenderer sr) {
-        sr.begin(ShapeRenderer.ShapeType.Line);
-        sr.setColor(col);
         sr.rect(rect.x, rect.y, rect.width, rect.height);
-        sr.end();
     }
 
     /**
@@ -64,6 +63,8 @@ public class Hitbox {
 
     /** GETTERS */
     public Rectangle getRect() { return rect; }
-    public String getTag() {return tag;}
+    public int getCategory() { return category; }
+    public int getMask() { return mask; }
+    public Color getColor() { return col; }
 
 }
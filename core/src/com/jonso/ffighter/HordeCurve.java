@@ -0,0 +1,87 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * How hard horde mode pushes over time: a list of points, each giving
+ * a time (seconds into the horde), a spawn rate (enemies per second)
+ * and a cap (most enemies alive at once). Between points both values
+ * are interpolated linearly; after the last point they stay put.
+ *
+ * Written as "time:rate:cap" points separated by commas, e.g. DEFAULT.
+ *
+ * @author Jonathan So
+ */
+public class HordeCurve {
+
+    /** Ramps from a light crowd to 10,000 enemies over two minutes. */
+    public static final String DEFAULT = "0:50:200,20:250:1000,60:1000:5000,120:2000:10000";
+
+    private final float[] times; // Seconds into the horde, ascending.
+    private final float[] rates; // Enemies per second.
+    private final int[] caps; // Most enemies alive at once.
+
+    private HordeCurve(float[] times, float[] rates, int[] caps) {
+        this.times = times;
+        this.rates = rates;
+        this.caps = caps;
+    }
+
+    /**
+     * Parse a curve.
+     * @param text Points as "time:rate:cap", separated by commas, in time order.
+     * @return The curve.
+     */
+    public static HordeCurve parse(String text) {
+        String[] points = text.split(",");
+        float[] times = new float[points.length];
+        float[] rates = new float[points.length];
+        int[] caps = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            String[] fields = points[i].trim().split(":");
+            if (fields.length != 3) {
+                throw new GdxRuntimeException("Horde curve point must be time:rate:cap, not " + points[i]);
+            }
+            try {
+                times[i] = Float.parseFloat(fields[0]);
+                rates[i] = Float.parseFloat(fields[1]);
+                caps[i] = Integer.parseInt(fields[2]);
+            } catch (NumberFormatException e) {
+                throw new GdxRuntimeException("Bad number in horde curve point " + points[i]);
+            }
+            if (i > 0 && times[i] < times[i - 1]) {
+                throw new GdxRuntimeException("Horde curve points must be in time order");
+            }
+        }
+        return new HordeCurve(times, rates, caps);
+    }
+
+    /** Enemies per second to spawn, some seconds into the horde. */
+    public float getRate(float t) {
+        int i = segment(t);
+        if (i < 0) { return rates[0]; }
+        if (i == times.length - 1) { return rates[i]; }
+        return rates[i] + ((rates[i + 1] - rates[i]) * fraction(i, t));
+    }
+
+    /** Most enemies alive at once, some seconds into the horde. */
+    public int getCap(float t) {
+        int i = segment(t);
+        if (i < 0) { return caps[0]; }
+        if (i == times.length - 1) { return caps[i]; }
+        return caps[i] + (int) ((caps[i + 1] - caps[i]) * fraction(i, t));
+    }
+
+    /** Index of the last point at or before t, or -1 if t is before the first. */
+    private int segment(float t) {
+        int i = -1;
+        while (i + 1 < times.length && times[i + 1] <= t) { i++; }
+        return i;
+    }
+
+    /** How far t is from point i to point i + 1, from 0 to 1. */
+    private float fraction(int i, float t) {
+        float span = times[i + 1] - times[i];
+        return span <= 0 ? 1 : (t - times[i]) / span;
+    }
+}
@@ -0,0 +1,66 @@
+package com.jonso.ffighter;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Drives horde mode: every PERIOD seconds it spawns however many
+ * enemies the HordeCurve's rate calls for, in random lanes on random
+ * sides, as long as that keeps the crowd under the curve's cap.
+ * It replaces the normal Spawners, and reschedules itself forever.
+ *
+ * @author Jonathan So
+ */
+public class HordeDirector extends TimedEvent {
+
+    private HordeCurve curve; // Spawn rate and cap over time.
+    private EnemyStore enemies; // Read to see how many are alive.
+    private Random random; // Picks lanes and sides; shared with the GameWorld.
+    private float start = -1; // World time of the first fire.
+    private float owed; // Spawns the rate has built up but not yet spawned.
+
+    private final float PERIOD = 0.1f; // Seconds between fires.
+
+    /**
+     * Constructor for the director; schedule it once to start the horde.
+     * @param curve Spawn rate and cap over time.
+     * @param enemies The world's enemies, to count.
+     * @param random Seeded generator for lanes and sides.
+     */
+    public HordeDirector(HordeCurve curve, EnemyStore enemies, Random random) {
+        this.curve = curve;
+        this.enemies = enemies;
+        this.random = random;
+    }
+
+    @Override
+    public void fire(WaveScheduler scheduler) {
+        if (start < 0) { start = time; }
+        float t = time - start;
+        owed += curve.getRate(t) * PERIOD;
+        int count = Math.min((int) owed, Math.max(0, curve.getCap(t) - enemies.size()));
+        owed -= (int) owed; // Spawns held back by the cap aren't saved up.
+        for (int i = 0; i < count; i++) {
+            scheduler.getEvents().spawn(random.nextBoolean() ? GameWorld.LEFT : GameWorld.RIGHT,
+                    random.nextInt(GameWorld.LANES), EnemyStore.BASIC);
+        }
+        scheduler.schedule(this, time + PERIOD);
+    }
+
+    @Override
+    void save(ByteBuffer out) {
+        out.putFloat(start);
+        out.putFloat(owed);
+    }
+
+    @Override
+    void load(ByteBuffer in) {
+        start = in.getFloat();
+        owed = in.getFloat();
+    }
+
+    /** Seconds since the horde started. */
+    public float getElapsed(WaveScheduler scheduler) {
+        return start < 0 ? 0 : scheduler.getTime() - start;
+    }
+}
@@ -0,0 +1,108 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+/**
+ * Draws the score, times hit, and the lines of help text.
+ * The help text never changes, so it's laid out once into a
+ * BitmapFontCache. The score and hits are only re-formatted and
+ * re-laid out when their values change, so drawing a frame
+ * doesn't allocate.
+ *
+ * @author Jonathan So
+ */
+public class Hud {
+
+    private BitmapFont font;
+    private BitmapFontCache staticText; // Lines that never change.
+    private GlyphLayout scoreLayout, hitsLayout; // Laid out score and hits.
+    private GlyphLayout hordeLayout; // Laid out horde stats; only drawn in horde mode.
+    private StringBuilder text; // Reused for formatting numbers.
+
+    private int shownScore = -1; // Score currently laid out.
+    private int shownHits = -1; // Hits currently laid out.
+    private int shownEnemies = -1; // Horde enemy count currently laid out.
+    private boolean horde; // Whether or not to draw the horde stats.
+
+    // LAYOUT
+    private final int X = 16;
+    private final int SCORE_Y = 64;
+    private final int HITS_Y = 96;
+    private final int CONTROLS_Y = 128;
+    private final int CREDITS_Y = 160;
+    private final int HORDE_Y = 32;
+
+    /**
+     * Constructor for the HUD; lays out the static text.
+     * @param font The font to draw with.
+     */
+    public Hud(BitmapFont font) {
+        this.font = font;
+        staticText = font.newFontCache();
+        staticText.setText("D | F | V  and  K | J | N for Hi, Mid, Low attacks respectively.", X, CONTROLS_Y);
+        staticText.addText("Forward Fighter v0.1 by Jonathan So, 2021.", X, CREDITS_Y);
+        scoreLayout = new GlyphLayout();
+        hitsLayout = new GlyphLayout();
+        hordeLayout = new GlyphLayout();
+        text = new StringBuilder(32);
+    }
+
+    /**
+     * Re-lay out any value that changed since the last call.
+     * @param score The current score.
+     * @param hits The current number of times the player has been hit.
+     */
+    public void update(int score, int hits) {
+        if (score != shownScore) {
+            text.setLength(0);
+            text.append("Score: ").append(score);
+            scoreLayout.setText(font, text);
+            shownScore = score;
+        }
+        if (hits != shownHits) {
+            text.setLength(0);
+            text.append("Times Hit: ").append(hits);
+            hitsLayout.setText(font, text);
+            shownHits = hits;
+        }
+    }
+
+    /**
+     * Show horde mode stats from now on, re-laying them out when the enemy count changes.
+     * @param enemies Enemies alive.
+     * @param budgets The monitor tracking when frame time went over budget.
+     */
+    public void updateHorde(int enemies, FrameBudgetMonitor budgets) {
+        horde = true;
+        if (enemies == shownEnemies) { return; }
+        text.setLength(0);
+        text.append("Horde: ").append(enemies).append(" enemies");
+        appendCrossing(" | over 16.6 ms at ", budgets.getCrossedAt(0));
+        appendCrossing(" | over 33.3 ms at ", budgets.getCrossedAt(1));
+        hordeLayout.setText(font, text);
+        shownEnemies = enemies;
+    }
+
+    private void appendCrossing(String label, int enemies) {
+        text.append(label);
+        if (enemies < 0) {
+            text.append('-');
+        } else {
+            text.append(enemies);
+        }
+    }
+
+    /**
+     * Draw the HUD; the batch must already have begun.
+     * @param batch The batch to draw with.
+     */
+    public void draw(Batch batch) {
+        font.draw(batch, scoreLayout, X, SCORE_Y);
+        font.draw(batch, hitsLayout, X, HITS_Y);
+        if (horde) { font.draw(batch, hordeLayout, X, HORDE_Y); }
+        staticText.draw(batch);
+    }
+}
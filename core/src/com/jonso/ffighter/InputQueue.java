@@ -0,0 +1,127 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Gameplay input from the keyboard, taken from key events as they
+ * arrive rather than polled once a frame, so every press is kept (even
+ * several in one frame) along with when it happened. Set it as (or
+ * chain it into) the input processor.
+ *
+ * The world polls it at the start of each tick and gets the oldest
+ * press still waiting. A press made while the player is still recovering
+ * from an attack is buffered, and used on the first tick the player can
+ * attack again, as long as that's within the buffer window; older
+ * presses are dropped. Presses only expire while the player is
+ * recovering, so a long frame never loses one the player could have used.
+ *
+ * It also measures input latency: the time from a key event to the end
+ * of the collision pass on the tick that started its attack, the first
+ * one its hitbox was checked in.
+ *
+ * @author Jonathan So
+ */
+public class InputQueue extends InputAdapter implements InputSource {
+
+    private final int CAPACITY = 16; // Presses kept; the oldest is dropped past this.
+
+    private AttackTable attacks; // Every attack, and the key for each.
+    private long window; // How long a press stays buffered, in nanoseconds.
+
+    // RING OF PRESSES, oldest first.
+    private int[] pressed; // Attack ids.
+    private long[] stamps; // When each key event arrived.
+    private int head, size;
+
+    private long handedOut = -1; // Stamp of the press last returned by poll(); -1 once measured.
+
+    // STATISTICS
+    private int presses; // Presses received.
+    private int dropped; // Presses that expired or overflowed before being used.
+    private int measured; // Presses whose latency was measured.
+    private long totalLatency, maxLatency, lastLatency; // Nanoseconds.
+
+    /**
+     * Constructor for the queue.
+     * @param attacks The attacks to read keys for.
+     * @param window How long a press stays buffered while the player can't attack, in seconds.
+     */
+    public InputQueue(AttackTable attacks, float window) {
+        this.attacks = attacks;
+        this.window = (long) (window * 1000000000L);
+        pressed = new int[CAPACITY];
+        stamps = new long[CAPACITY];
+    }
+
+    /** Queue the attack for a key, if it has one. */
+    @Override
+    public boolean keyDown(int keycode) {
+        int attack = attacks.forKey(keycode);
+        if (attack == AttackTable.NONE) { return false; }
+        push(attack, TimeUtils.nanoTime());
+        return true;
+    }
+
+    /** Add a press to the back of the ring, dropping the oldest if it's full. */
+    private void push(int attack, long stamp) {
+        if (size == CAPACITY) {
+            head = (head + 1) % CAPACITY;
+            size--;
+            dropped++;
+        }
+        int i = (head + size) % CAPACITY;
+        pressed[i] = attack;
+        stamps[i] = stamp;
+        size++;
+        presses++;
+    }
+
+    @Override
+    public int poll(GameWorld world) {
+        measure(world);
+        if (!world.getPlayer().canAttack()) {
+            // Drop presses that have waited too long for the player to recover.
+            long now = TimeUtils.nanoTime();
+            while (size > 0 && now - stamps[head] > window) {
+                head = (head + 1) % CAPACITY;
+                size--;
+                dropped++;
+            }
+            return AttackTable.NONE;
+        }
+        if (size == 0) { return AttackTable.NONE; }
+        int attack = pressed[head];
+        handedOut = stamps[head];
+        head = (head + 1) % CAPACITY;
+        size--;
+        return attack;
+    }
+
+    /** If the press handed out last has had its hitbox checked, record how long that took. */
+    private void measure(GameWorld world) {
+        if (handedOut < 0 || world.getAttackLiveAt() < handedOut) { return; }
+        lastLatency = world.getAttackLiveAt() - handedOut;
+        totalLatency += lastLatency;
+        maxLatency = Math.max(maxLatency, lastLatency);
+        measured++;
+        handedOut = -1;
+    }
+
+    /** Forget every waiting press, e.g. when taking back control from a replay. */
+    public void clear() {
+        head = 0;
+        size = 0;
+        handedOut = -1;
+    }
+
+    /** GETTERS */
+    public int size() { return size; }
+    public int getPresses() { return presses; }
+    public int getDropped() { return dropped; }
+    public int getMeasured() { return measured; }
+    /** Latency from key event to the attack's hitbox first being checked, in nanoseconds. */
+    public long getLastLatency() { return lastLatency; }
+    public long getMaxLatency() { return maxLatency; }
+    public long getAverageLatency() { return measured == 0 ? 0 : totalLatency / measured; }
+}
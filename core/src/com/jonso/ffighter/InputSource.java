@@ -0,0 +1,19 @@
+package com.jonso.ffighter;
+
+/**
+ * Where a GameWorld's gameplay input comes from: the keyboard, a
+ * script, or a recorded replay. The world polls its source once at the
+ * start of every tick, so input always lands on a tick boundary and a
+ * run can be reproduced tick for tick.
+ *
+ * @author Jonathan So
+ */
+public interface InputSource {
+
+    /**
+     * Get the action for the tick about to run.
+     * @param world The world about to tick; world.getTickCount() is the tick's number.
+     * @return The id of an attack in the player's AttackTable, or AttackTable.NONE.
+     */
+    int poll(GameWorld world);
+}
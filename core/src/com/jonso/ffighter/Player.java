@@ -1,7 +1,8 @@
 package com.jonso.ffighter;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import com.badlogic.gdx.graphics.Color;
 
@@ -14,21 +15,17 @@ import com.badlogic.gdx.graphics.Color;
  * @author Jonathan So
  */
 public class Player extends Entity {
-// public class Player extends AnimEntity {
 
-    /** Player's hurtbox and six attack hitboxes. */
-    private Hitbox hurtbox, lHi, lMd, lLo, rHi, rMd, rLo;
+    /** Player's hurtbox, and one hitbox per attack in the AttackTable. */
+    private Hitbox hurtbox;
+    private Hitbox[] attackHitboxes; // Indexed by attack id.
+    private AttackTable attacks; // Every attack we can do.
     private ArrayList<Hitbox> activeHitboxes; // AL<> of active hitboxes.
     private Hitbox currentHitbox; // The current attack hitbox.
     private float timer; // Timer for our attacks.
-    private float currAttackTime; // Set to HI_MD_LO_TIMEs
-
-    // CONSTANTS
-    /** Amount of time (in s) these attacks are active. */
-    private final float HI_TIME = 0.200f;
-    private final float MD_TIME = 0.100f;
-    private final float LO_TIME = 0.250f;
-    private final int HITBOX_SIZE = 64;
+    private float currAttackTime; // Active time of the current attack.
+    private float currRecoveryTime; // Recovery time of the current attack.
+    private float recovery; // Time left before we can attack again.
 
 //    /**
 //     * Constructor for an entity that takes in a Texture,
@@ -55,79 +52,95 @@ public class Player extends Entity {
 
     /**
      * Constructor for the player. Sets up the hitboxes.
-     * @param sprite Texture for the player.
+     * @param sprite TextureRegion for the player.
      * @param x Init X position.
      * @param y Init Y position.
+     * @param attacks Every attack the player can do.
      */
-    public Player(Texture sprite, int x, int y) {
+    public Player(TextureRegion sprite, int x, int y, AttackTable attacks) {
         super(sprite, x, y);
-        setupHitboxes();
+        setLayer(CollisionLayers.PLAYER);
+        setupHitboxes(attacks);
+    }
+
+    /** Similar to the default constructor, but the size is specified here. */
+    public Player(TextureRegion sprite, int x, int y, int width, int height, AttackTable attacks) {
+        super(sprite, x, y, width, height);
+        setLayer(CollisionLayers.PLAYER);
+        setupHitboxes(attacks);
     }
 
     /**
-     * Create a hurtbox and six attack hitboxes as well as the activeHitboxes array.
+     * Create a hurtbox and a hitbox for every attack, as well as the activeHitboxes array.
+     * @param attacks Every attack the player can do.
      */
-    private void setupHitboxes() {
-        // Setup the seven hitboxes
+    private void setupHitboxes(AttackTable attacks) {
+        this.attacks = attacks;
         hurtbox = new Hitbox(this.x + (this.width / 4), this.y,
-                this.width / 2, this.height, Color.RED, "Player");
-        lHi = new Hitbox(this.x - (HITBOX_SIZE / 2), this.y + (this.height * 2 / 3),
-                HITBOX_SIZE, HITBOX_SIZE, "Player_Attack");
-        rHi = new Hitbox(this.x + this.width - (HITBOX_SIZE / 2), this.y + (this.height * 2 / 3),
-                HITBOX_SIZE, HITBOX_SIZE, "Player_Attack");
-
-        lMd = new Hitbox(this.x - (HITBOX_SIZE / 2), this.y + (this.height / 3),
-                HITBOX_SIZE, HITBOX_SIZE, "Player_Attack");
-        rMd = new Hitbox(this.x + this.width - (HITBOX_SIZE / 2), this.y + (this.height / 3),
-                HITBOX_SIZE, HITBOX_SIZE, "Player_Attack");
-
-        lLo = new Hitbox(this.x - (HITBOX_SIZE / 2), this.y,
-                HITBOX_SIZE, HITBOX_SIZE, "Player_Attack");
-        rLo = new Hitbox(this.x + this.width - (HITBOX_SIZE / 2), this.y,
-                HITBOX_SIZE, HITBOX_SIZE, "Player_Attack");
+                this.width / 2, this.height, Color.RED, CollisionLayers.PLAYER_HURTBOX);
+        attackHitboxes = new Hitbox[attacks.size()];
+        for (int i = 0; i < attackHitboxes.length; i++) {
+            attackHitboxes[i] = attacks.get(i).createHitbox(this.x, this.y, this.width, this.height);
+        }
         activeHitboxes = new ArrayList<Hitbox>();
         activeHitboxes.add(hurtbox);
         currentHitbox = null;
     }
 
     /**
-     * Activate an attack based on the way the attack is facing and its height.
-     * Cancels the previous attack, if present.
-     * @param facing String either "left" or "right" denoting which way the player faces.
-     * @param height String that's "hi", "md", or "lo" denoting attack height.
+     * Activate an attack from the AttackTable.
+     * Cancels the previous attack, if present; ignored while recovering from one.
+     * @param id The attack's id in the AttackTable.
+     * @return Whether or not the attack started.
      */
-    public void attack(String facing, String height) {
+    public boolean attack(int id) {
+        if (recovery > 0) {
+            return false;
+        }
         // Only one attack at a time!
         if (currentHitbox != null) {
             deactivateAttack();
         }
-        if (facing == "left") {
-            switch(height) {
-                case "hi":
-                    activateAttack("lhi", lHi);
-                    break;
-                case "lo":
-                    activateAttack("llo", lLo);
-                    break;
-                case "md":
-                default:
-                    activateAttack("lmd", lMd);
-                    break;
-            }
-        } else { // facing == right
-            switch(height) {
-                case "hi":
-                    activateAttack("rhi", rHi);
-                    break;
-                case "lo":
-                    activateAttack("rlo", rLo);
-                    break;
-                case "md":
-                default:
-                    activateAttack("rmd", rMd);
-                    break;
-            }
+        activateAttack(attacks.get(id), attackHitboxes[id]);
+        return true;
+    }
+
+    /** Whether or not attack() would start an attack now, i.e. we aren't recovering. */
+    public boolean canAttack() {
+        return recovery <= 0;
+    }
+
+    /**
+     * Write the attack state, for WorldSnapshot; the player never moves,
+     * so that's all there is.
+     * @param out Where to write.
+     */
+    public void save(ByteBuffer out) {
+        int current = -1;
+        for (int i = 0; i < attackHitboxes.length; i++) {
+            if (attackHitboxes[i] == currentHitbox) { current = i; }
         }
+        out.putInt(current);
+        out.putFloat(timer);
+        out.putFloat(currAttackTime);
+        out.putFloat(currRecoveryTime);
+        out.putFloat(recovery);
+    }
+
+    /**
+     * Read back what save() wrote, and rebuild the active hitboxes from it.
+     * @param in Where to read.
+     */
+    public void restore(ByteBuffer in) {
+        int current = in.getInt();
+        timer = in.getFloat();
+        currAttackTime = in.getFloat();
+        currRecoveryTime = in.getFloat();
+        recovery = in.getFloat();
+        activeHitboxes.clear();
+        activeHitboxes.add(hurtbox);
+        currentHitbox = current < 0 ? null : attackHitboxes[current];
+        if (currentHitbox != null) { activeHitboxes.add(currentHitbox); }
     }
 
     /** Getter for activeHitboxes */
@@ -135,40 +148,33 @@ public class Player extends Entity {
         return activeHitboxes;
     }
 
+    /** Getter for the AttackTable */
+    public AttackTable getAttacks() {
+        return attacks;
+    }
+
     /**
      * Activates an attack with its timer and assigns it to the current hitbox.
-     * @param animName String denoting name of animation to activate.
+     * @param data The attack to activate.
      * @param hb The hitbox to activate.
      */
-    private void activateAttack(String animName, Hitbox hb) {
+    private void activateAttack(AttackData data, Hitbox hb) {
         // call the animation
-        // switchAnimation(animName);
+        // switchAnimation(data.getAnimId());
 
         // reset timer
         timer = 0;
         // add a hitbox to "list of hitboxes to draw and check"
         activeHitboxes.add(hb);
         currentHitbox = hb;
-        switch(animName) {
-            case "lhi":
-            case "rhi":
-                currAttackTime = HI_TIME;
-                break;
-            case "llo":
-            case "rlo":
-                currAttackTime = LO_TIME;
-                break;
-            case "lmd":
-            case "rmd":
-            default:
-                currAttackTime = MD_TIME;
-                break;
-        }
+        currAttackTime = data.getActive();
+        currRecoveryTime = data.getRecovery();
     }
 
     /**
      * If currentHitbox is assigned, update its timer and check
-     * if we should deactivate it.
+     * if we should deactivate it (and start recovering).
+     * Otherwise, count down any recovery.
      * @param delta Time from previous update to now.
      */
     public void checkTiming(float delta) {
@@ -176,7 +182,10 @@ public class Player extends Entity {
             timer += delta;
             if (timer > currAttackTime) {
                 deactivateAttack();
+                recovery = currRecoveryTime;
             }
+        } else if (recovery > 0) {
+            recovery -= delta;
         }
     }
 
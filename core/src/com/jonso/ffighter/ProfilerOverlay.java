@@ -0,0 +1,105 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+/**
+ * Draws a FrameProfiler's p50 and p99 for each phase, plus the entity,
+ * hitbox, draw call and culled sprite counts and the input latency, in
+ * the top-right corner. Percentiles
+ * mean sorting every recorded frame, so the text is only rebuilt every
+ * REFRESH frames; in between, the same layout is drawn again.
+ *
+ * @author Jonathan So
+ */
+public class ProfilerOverlay {
+
+    private BitmapFont font;
+    private FrameProfiler profiler;
+    private GlyphLayout layout; // Every line, laid out together.
+    private StringBuilder text; // Reused for formatting.
+    private int sinceRefresh; // Frames since the text was rebuilt.
+    private int drawn, culled; // Sprites drawn and culled last frame.
+    private InputQueue input; // For input latency; null to leave it out.
+
+    // LAYOUT
+    private final int REFRESH = 30;
+    private final int X = GameWorld.WIDTH - 300;
+    private final int Y = GameWorld.HEIGHT - 16;
+
+    /**
+     * Constructor for the overlay.
+     * @param font The font to draw with.
+     * @param profiler The profiler to show.
+     */
+    public ProfilerOverlay(BitmapFont font, FrameProfiler profiler) {
+        this.font = font;
+        this.profiler = profiler;
+        layout = new GlyphLayout();
+        text = new StringBuilder(512);
+        sinceRefresh = REFRESH;
+    }
+
+    /**
+     * Draw the overlay, if the profiler is recording; the batch must already have begun.
+     * @param batch The batch to draw with.
+     */
+    public void draw(Batch batch) {
+        if (!profiler.isEnabled()) { return; }
+        if (++sinceRefresh >= REFRESH) {
+            rebuild();
+            sinceRefresh = 0;
+        }
+        font.draw(batch, layout, X, Y);
+    }
+
+    /**
+     * Set the sprite counts from the last frame's view culling.
+     * @param drawn Sprites inside the view, and drawn.
+     * @param culled Sprites outside the view, and skipped.
+     */
+    public void setCulled(int drawn, int culled) {
+        this.drawn = drawn;
+        this.culled = culled;
+    }
+
+    /** Set the keyboard input whose latency to show; null to leave it out. */
+    public void setInput(InputQueue input) {
+        this.input = input;
+    }
+
+    /** Re-format every line from the profiler's current samples. */
+    private void rebuild() {
+        text.setLength(0);
+        text.append("phase     p50 ms   p99 ms\n");
+        for (int p = 0; p < FrameProfiler.PHASE_COUNT; p++) {
+            text.append(FrameProfiler.getName(p));
+            for (int pad = FrameProfiler.getName(p).length(); pad < 10; pad++) { text.append(' '); }
+            appendMillis(profiler.getPercentile(p, 50));
+            text.append("    ");
+            appendMillis(profiler.getPercentile(p, 99));
+            text.append('\n');
+        }
+        text.append("Entities: ").append(profiler.getLastEntities());
+        text.append("  Hitboxes: ").append(profiler.getLastHitboxes());
+        text.append("  Draw calls: ").append(profiler.getLastRenderCalls());
+        text.append("\nSprites drawn: ").append(drawn).append("  Culled: ").append(culled);
+        if (input != null) {
+            text.append("\nInput latency ms: avg ");
+            appendMillis(input.getAverageLatency());
+            text.append("  max ");
+            appendMillis(input.getMaxLatency());
+            text.append("  dropped ").append(input.getDropped());
+        }
+        layout.setText(font, text);
+    }
+
+    /** Append nanoseconds as milliseconds with two decimals (String.format isn't on every backend). */
+    private void appendMillis(long nanos) {
+        long hundredths = nanos / 10000;
+        text.append(hundredths / 100).append('.');
+        if (hundredths % 100 < 10) { text.append('0'); }
+        text.append(hundredths % 100);
+    }
+}
@@ -0,0 +1,276 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+/**
+ * A recorded run: the seed, tick rate and settings (horde curve, wave
+ * file, off-screen interval) it started with, every
+ * (tick, attack) the player pressed, a checksum of the world every
+ * CHECKPOINT_INTERVAL ticks, and the tick, score and checksum it
+ * ended on. Starting a GameWorld from the same seed and feeding it the
+ * same actions on the same ticks reproduces the run exactly, which the
+ * checksums confirm. Players apply the recorded settings, so a replay
+ * doesn't depend on being given the same flags it was recorded with.
+ *
+ * On disk it's a small binary file: a header, then one record per
+ * action or checkpoint in tick order, with ticks stored as varint
+ * deltas from the previous record, so an action is usually 3 bytes.
+ *
+ * @author Jonathan So
+ */
+public class Replay {
+
+    public static final int CHECKPOINT_INTERVAL = 60; // Ticks between checksums.
+
+    // FILE FORMAT
+    private static final byte[] MAGIC = { 'F', 'F', 'R', 'P' };
+    private static final int VERSION = 2; // 2 added the settings; 1 is still read.
+    private static final int ACTION = 0; // Tick delta, attack id.
+    private static final int CHECKPOINT = 1; // Tick delta, 8-byte checksum.
+    private static final int END = 2; // Tick delta, score, 8-byte checksum.
+
+    private long seed; // Seed the world started with.
+    private int tickRate; // Ticks per second the run was simulated at.
+
+    // SETTINGS THE RUN WAS RECORDED WITH
+    private boolean hasSettings; // False for a version 1 replay, which didn't record them.
+    private String hordeCurve; // null outside horde mode.
+    private String wavesFile; // null if no wave script played.
+    private int offscreenInterval = 1;
+
+    // RECORDS, each list in tick order.
+    private LongArray actionTicks;
+    private IntArray actions;
+    private LongArray checkpointTicks;
+    private LongArray checksums;
+
+    // END OF THE RUN
+    private long endTick = -1; // -1 until end() is called.
+    private int endScore;
+    private long endChecksum;
+
+    /**
+     * Constructor for an empty replay.
+     * @param seed Seed the world starts with.
+     * @param tickRate Ticks per second.
+     */
+    public Replay(long seed, int tickRate) {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        actionTicks = new LongArray();
+        actions = new IntArray();
+        checkpointTicks = new LongArray();
+        checksums = new LongArray();
+    }
+
+    /**
+     * Record the settings the world was set up with.
+     * @param hordeCurve The horde curve, or null outside horde mode.
+     * @param wavesFile The wave script's file name, or null.
+     * @param offscreenInterval Ticks between moves of off-screen enemies; 1 for every tick.
+     */
+    public void setSettings(String hordeCurve, String wavesFile, int offscreenInterval) {
+        this.hasSettings = true;
+        this.hordeCurve = hordeCurve;
+        this.wavesFile = wavesFile;
+        this.offscreenInterval = offscreenInterval;
+    }
+
+    /** Record the attack applied on a tick. */
+    public void addAction(long tick, int action) {
+        actionTicks.add(tick);
+        actions.add(action);
+    }
+
+    /** Record the world's checksum at the start of a tick. */
+    public void addCheckpoint(long tick, long checksum) {
+        checkpointTicks.add(tick);
+        checksums.add(checksum);
+    }
+
+    /** Record where the run ended. */
+    public void end(long tick, int score, long checksum) {
+        endTick = tick;
+        endScore = score;
+        endChecksum = checksum;
+    }
+
+    /**
+     * Write the replay to a file.
+     * @param file Where to write; overwritten.
+     */
+    public void write(FileHandle file) {
+        Bytes out = new Bytes(64 + (actions.size * 3) + (checksums.size * 10));
+        for (byte b : MAGIC) { out.put(b); }
+        out.put(VERSION);
+        out.putLong(seed);
+        out.putVarint(tickRate);
+        out.putString(hordeCurve);
+        out.putString(wavesFile);
+        out.putVarint(offscreenInterval);
+        long tick = 0;
+        int a = 0, c = 0;
+        while (a < actions.size || c < checksums.size) {
+            // Merge the two lists by tick; a checkpoint comes before an action on the same tick.
+            if (c < checksums.size && (a == actions.size || checkpointTicks.get(c) <= actionTicks.get(a))) {
+                out.put(CHECKPOINT);
+                out.putVarint(checkpointTicks.get(c) - tick);
+                out.putLong(checksums.get(c));
+                tick = checkpointTicks.get(c++);
+            } else {
+                out.put(ACTION);
+                out.putVarint(actionTicks.get(a) - tick);
+                out.putVarint(actions.get(a));
+                tick = actionTicks.get(a++);
+            }
+        }
+        if (endTick >= 0) {
+            out.put(END);
+            out.putVarint(endTick - tick);
+            out.putVarint(endScore);
+            out.putLong(endChecksum);
+        }
+        file.writeBytes(out.bytes, 0, out.size, false);
+    }
+
+    /**
+     * Read a replay written by write().
+     * @param file The replay file.
+     * @return The replay.
+     */
+    public static Replay read(FileHandle file) {
+        Bytes in = new Bytes(file.readBytes());
+        for (byte b : MAGIC) {
+            if (in.get() != b) { throw new GdxRuntimeException("Not a replay: " + file.path()); }
+        }
+        int version = in.get();
+        if (version < 1 || version > VERSION) {
+            throw new GdxRuntimeException("Unsupported replay version " + version + ": " + file.path());
+        }
+        Replay replay = new Replay(in.getLong(), (int) in.getVarint());
+        if (version >= 2) {
+            replay.setSettings(in.getString(), in.getString(), (int) in.getVarint());
+        }
+        long tick = 0;
+        while (in.remaining() > 0) {
+            int type = in.get();
+            tick += in.getVarint();
+            switch (type) {
+                case ACTION:
+                    replay.addAction(tick, (int) in.getVarint());
+                    break;
+                case CHECKPOINT:
+                    replay.addCheckpoint(tick, in.getLong());
+                    break;
+                case END:
+                    replay.end(tick, (int) in.getVarint(), in.getLong());
+                    break;
+                default:
+                    throw new GdxRuntimeException("Bad replay record " + type + ": " + file.path());
+            }
+        }
+        return replay;
+    }
+
+    /** GETTERS */
+    public long getSeed() { return seed; }
+    public int getTickRate() { return tickRate; }
+    /** Whether the settings were recorded; a version 1 replay didn't. */
+    public boolean hasSettings() { return hasSettings; }
+    public String getHordeCurve() { return hordeCurve; }
+    public String getWavesFile() { return wavesFile; }
+    public int getOffscreenInterval() { return offscreenInterval; }
+    public int getActionCount() { return actions.size; }
+    public long getActionTick(int i) { return actionTicks.get(i); }
+    public int getAction(int i) { return actions.get(i); }
+    public int getCheckpointCount() { return checksums.size; }
+    public long getCheckpointTick(int i) { return checkpointTicks.get(i); }
+    public long getChecksum(int i) { return checksums.get(i); }
+    /** Whether end() was recorded; if not, the run was cut short. */
+    public boolean hasEnd() { return endTick >= 0; }
+    public long getEndTick() { return endTick; }
+    public int getEndScore() { return endScore; }
+    public long getEndChecksum() { return endChecksum; }
+
+    /**
+     * A growable byte array with a read position, for encoding records.
+     * (java.io's Data streams aren't available on every backend.)
+     */
+    private static class Bytes {
+        byte[] bytes;
+        int size; // Bytes written, or the length when reading.
+        int pos; // Read position.
+
+        Bytes(int capacity) { bytes = new byte[capacity]; }
+
+        Bytes(byte[] data) {
+            bytes = data;
+            size = data.length;
+        }
+
+        void put(int b) {
+            if (size == bytes.length) {
+                byte[] grown = new byte[size * 2];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        /** Unsigned LEB128: seven bits per byte, high bit set on all but the last. */
+        void putVarint(long v) {
+            while ((v & ~0x7FL) != 0) {
+                put((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            put((int) v);
+        }
+
+        void putLong(long v) {
+            for (int shift = 56; shift >= 0; shift -= 8) { put((int) (v >>> shift)); }
+        }
+
+        /** Length + 1 (0 for null), then each char as a varint; short ASCII strings are 1 byte a char. */
+        void putString(String v) {
+            if (v == null) {
+                put(0);
+                return;
+            }
+            putVarint(v.length() + 1);
+            for (int i = 0; i < v.length(); i++) { putVarint(v.charAt(i)); }
+        }
+
+        int get() {
+            if (pos >= size) { throw new GdxRuntimeException("Replay ends mid-record"); }
+            return bytes[pos++];
+        }
+
+        long getVarint() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = get();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) { return v; }
+            }
+        }
+
+        long getLong() {
+            long v = 0;
+            for (int i = 0; i < 8; i++) { v = (v << 8) | (get() & 0xFF); }
+            return v;
+        }
+
+        String getString() {
+            int length = (int) getVarint() - 1;
+            if (length < 0) { return null; }
+            StringBuilder v = new StringBuilder(length);
+            for (int i = 0; i < length; i++) { v.append((char) getVarint()); }
+            return v.toString();
+        }
+
+        int remaining() { return size - pos; }
+    }
+}
@@ -0,0 +1,74 @@
+package com.jonso.ffighter;
+
+/**
+ * Plays a Replay back as input, returning each recorded action on its
+ * tick, and checks the world's checksum at every recorded checkpoint.
+ * If the world ever differs from the recording (e.g. the game logic
+ * changed since it was made), the first tick it differed on is kept.
+ *
+ * @author Jonathan So
+ */
+public class ReplayPlayer implements InputSource {
+
+    private Replay replay;
+    private int nextAction; // Index of the next action to play.
+    private int nextCheckpoint; // Index of the next checkpoint to check.
+    private long divergedAt = -1; // First tick the world didn't match; -1 if it always has.
+
+    /**
+     * Constructor for the player. The world it drives must be
+     * created with replay.getSeed() and ticked at replay.getTickRate().
+     * @param replay The replay to play.
+     */
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+    }
+
+    @Override
+    public int poll(GameWorld world) {
+        long tick = world.getTickCount();
+        while (nextCheckpoint < replay.getCheckpointCount()
+                && replay.getCheckpointTick(nextCheckpoint) <= tick) {
+            if (replay.getCheckpointTick(nextCheckpoint) == tick
+                    && replay.getChecksum(nextCheckpoint) != world.getChecksum()) {
+                diverge(tick);
+            }
+            nextCheckpoint++;
+        }
+        int action = AttackTable.NONE;
+        // Only one attack applies per tick; a later one on the same tick replaces it.
+        while (nextAction < replay.getActionCount() && replay.getActionTick(nextAction) <= tick) {
+            if (replay.getActionTick(nextAction) == tick) {
+                action = replay.getAction(nextAction);
+            }
+            nextAction++;
+        }
+        return action;
+    }
+
+    /**
+     * Whether the world has reached the end of the replay. If so, and the
+     * replay recorded an end, the final score and checksum are checked too.
+     * @param world The world being driven.
+     */
+    public boolean isFinished(GameWorld world) {
+        if (!replay.hasEnd()) {
+            return nextAction >= replay.getActionCount() && nextCheckpoint >= replay.getCheckpointCount();
+        }
+        if (world.getTickCount() < replay.getEndTick()) { return false; }
+        if (world.getScore() != replay.getEndScore() || world.getChecksum() != replay.getEndChecksum()) {
+            diverge(world.getTickCount());
+        }
+        return true;
+    }
+
+    private void diverge(long tick) {
+        if (divergedAt < 0) { divergedAt = tick; }
+    }
+
+    /** GETTERS */
+    public Replay getReplay() { return replay; }
+    /** Whether the world has matched the recording at every check so far. */
+    public boolean matches() { return divergedAt < 0; }
+    public long getDivergedAt() { return divergedAt; }
+}
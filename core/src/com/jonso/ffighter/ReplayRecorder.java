@@ -0,0 +1,52 @@
+package com.jonso.ffighter;
+
+/**
+ * Records a run into a Replay while passing input through from another
+ * source: every action the source returns, plus a checksum of the world
+ * every Replay.CHECKPOINT_INTERVAL ticks. Call finish() when the run
+ * ends, then write the replay out.
+ *
+ * @author Jonathan So
+ */
+public class ReplayRecorder implements InputSource {
+
+    private InputSource source; // Where the input really comes from.
+    private Replay replay; // What we've recorded so far.
+
+    /**
+     * Constructor for the recorder.
+     * @param source The input to pass through and record.
+     * @param world The world being recorded, before its first tick; its seed goes in the replay.
+     * @param tickRate Ticks per second the world runs at.
+     */
+    public ReplayRecorder(InputSource source, GameWorld world, int tickRate) {
+        this.source = source;
+        this.replay = new Replay(world.getSeed(), tickRate);
+    }
+
+    @Override
+    public int poll(GameWorld world) {
+        long tick = world.getTickCount();
+        if (tick % Replay.CHECKPOINT_INTERVAL == 0) {
+            replay.addCheckpoint(tick, world.getChecksum());
+        }
+        int action = source.poll(world);
+        if (action != AttackTable.NONE) {
+            replay.addAction(tick, action);
+        }
+        return action;
+    }
+
+    /**
+     * Record where the run ended.
+     * @param world The world that was recorded.
+     * @return The finished replay.
+     */
+    public Replay finish(GameWorld world) {
+        replay.end(world.getTickCount(), world.getScore(), world.getChecksum());
+        return replay;
+    }
+
+    /** GETTERS */
+    public Replay getReplay() { return replay; }
+}
@@ -0,0 +1,130 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A uniform-grid spatial hash used as the collision broadphase.
+ * Every tick, boxes are inserted with an integer id (usually their index
+ * in a list) into every grid cell their rectangle touches; cells are
+ * hashed into a fixed number of buckets, so the world doesn't need bounds.
+ *
+ * A query returns every id sharing at least one cell with a rectangle,
+ * sorted ascending and without duplicates, so callers can run the
+ * narrowphase in the same order a brute-force loop over the list would.
+ * Buckets are reused between ticks, so nothing is allocated once they've
+ * grown to fit the busiest cell.
+ *
+ * @author Jonathan So
+ */
+public class SpatialHash {
+
+    private final float cellSize; // Width and height of one grid cell.
+    private final int mask; // bucketCount - 1; bucketCount is a power of two.
+
+    private int[][] buckets; // Ids stored in each bucket.
+    private int[] counts; // How many ids each bucket currently holds.
+
+    /**
+     * Constructor for the spatial hash.
+     * @param cellSize Width and height of a grid cell; roughly the size of the largest box.
+     * @param bucketCount Number of hash buckets; rounded up to a power of two.
+     */
+    public SpatialHash(float cellSize, int bucketCount) {
+        int size = 1;
+        while (size < bucketCount) { size <<= 1; }
+        this.cellSize = cellSize;
+        this.mask = size - 1;
+        buckets = new int[size][4];
+        counts = new int[size];
+    }
+
+    /** Empty every bucket; call once per tick before inserting. */
+    public void clear() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+    }
+
+    /**
+     * Insert a box into every cell its rectangle touches.
+     * @param id The id to report for this box in queries.
+     * @param rect The box's rectangle.
+     */
+    public void insert(int id, Rectangle rect) {
+        insert(id, rect.x, rect.y, rect.width, rect.height);
+    }
+
+    /** Overload for insert that takes in the bounds directly. */
+    public void insert(int id, float x, float y, float width, float height) {
+        int minX = cell(x), maxX = cell(x + width);
+        int minY = cell(y), maxY = cell(y + height);
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                int b = bucket(cx, cy);
+                int n = counts[b];
+                // Two of our cells may hash to the same bucket; only store the id once.
+                if (n > 0 && buckets[b][n - 1] == id) { continue; }
+                if (n == buckets[b].length) {
+                    int[] grown = new int[n * 2];
+                    System.arraycopy(buckets[b], 0, grown, 0, n);
+                    buckets[b] = grown;
+                }
+                buckets[b][n] = id;
+                counts[b] = n + 1;
+            }
+        }
+    }
+
+    /**
+     * Find every id that shares a cell with a rectangle.
+     * Doesn't modify the hash, so several threads may query at once
+     * as long as each passes its own output array.
+     * @param rect The rectangle we're looking for neighbours of.
+     * @param out Cleared, then filled with sorted, unique candidate ids.
+     */
+    public void query(Rectangle rect, IntArray out) {
+        query(rect.x, rect.y, rect.width, rect.height, out);
+    }
+
+    /** Overload for query that takes in the bounds directly. */
+    public void query(float x, float y, float width, float height, IntArray out) {
+        out.clear();
+        int minX = cell(x), maxX = cell(x + width);
+        int minY = cell(y), maxY = cell(y + height);
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                int b = bucket(cx, cy);
+                int[] ids = buckets[b];
+                for (int i = 0, n = counts[b]; i < n; i++) {
+                    out.add(ids[i]);
+                }
+            }
+        }
+        if (out.size > 1) {
+            // Sort, then squash duplicates from boxes spanning several cells.
+            out.sort();
+            int[] items = out.items;
+            int unique = 1;
+            for (int i = 1; i < out.size; i++) {
+                if (items[i] != items[unique - 1]) {
+                    items[unique++] = items[i];
+                }
+            }
+            out.size = unique;
+        }
+    }
+
+    /** Grid coordinate of a world coordinate. */
+    private int cell(float v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    /** Bucket index of a grid cell. */
+    private int bucket(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & mask;
+    }
+
+    /** GETTERS */
+    public float getCellSize() { return cellSize; }
+}
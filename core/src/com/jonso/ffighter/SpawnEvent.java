@@ -0,0 +1,69 @@
+package com.jonso.ffighter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One scripted wave: count enemies of an archetype, entering from one
+ * side in one lane, interval seconds apart. The event reschedules itself
+ * after each enemy until the wave is done.
+ *
+ * @author Jonathan So
+ */
+public class SpawnEvent extends TimedEvent {
+
+    private int side; // GameWorld.LEFT or GameWorld.RIGHT.
+    private int lane; // 0 (lowest) to GameWorld.LANES - 1.
+    private int archetype; // Which kind of enemy.
+    private int remaining; // Enemies left to spawn.
+    private float interval; // Seconds between enemies.
+
+    /**
+     * Constructor for a wave.
+     * @param side GameWorld.LEFT or GameWorld.RIGHT.
+     * @param lane 0 (lowest) to GameWorld.LANES - 1.
+     * @param archetype Which kind of enemy.
+     * @param count How many enemies.
+     * @param interval Seconds between enemies.
+     */
+    public SpawnEvent(int side, int lane, int archetype, int count, float interval) {
+        this.side = side;
+        this.lane = lane;
+        this.archetype = archetype;
+        this.remaining = count;
+        this.interval = interval;
+    }
+
+    @Override
+    public void fire(WaveScheduler scheduler) {
+        scheduler.getEvents().spawn(side, lane, archetype);
+        remaining--;
+        if (remaining > 0) {
+            scheduler.schedule(this, time + interval);
+        }
+    }
+
+    @Override
+    void save(ByteBuffer out) {
+        out.putInt(side);
+        out.putInt(lane);
+        out.putInt(archetype);
+        out.putInt(remaining);
+        out.putFloat(interval);
+    }
+
+    @Override
+    void load(ByteBuffer in) {
+        side = in.getInt();
+        lane = in.getInt();
+        archetype = in.getInt();
+        remaining = in.getInt();
+        interval = in.getFloat();
+    }
+
+    /** GETTERS */
+    public int getSide() { return side; }
+    public int getLane() { return lane; }
+    public int getArchetype() { return archetype; }
+    public int getRemaining() { return remaining; }
+    public float getInterval() { return interval; }
+}
@@ -1,61 +1,45 @@
 package com.jonso.ffighter;
 
+import java.util.Random;
+
 /**
- * This Spawner spawns in Enemies at its X position
- * and one of the three Y-axis heights on a random timer.
+ * This Spawner spawns in Enemies from one side, in one of the three
+ * lanes, at random times, forever. Each time it fires it spawns one
+ * enemy and schedules itself again after a random wait, so nothing
+ * is polled between spawns. The randomness comes from the GameWorld's
+ * seeded generator, so the same seed always spawns the same enemies.
  *
  * @author Jonathan So
  */
-public class Spawner {
-
-    private GameScreen game; // Used to add Enemies to the game.
+public class Spawner extends TimedEvent {
 
-    private int x, y, yHeight; // Position and height of one vertical "level"
-    private float currWait; // Wait time before spawning.
+    private int side; // GameWorld.LEFT or GameWorld.RIGHT.
+    private Random random; // Picks spawn times and lanes; shared with the GameWorld.
 
     private final float MIN_WAIT = 1/3f;
     private final float MAX_WAIT = 4/3f;
 
     /**
-     * Constructor that specifies a Spawner at a location.
-     * @param x init X position.
-     * @param y init Y position.
-     * @param yHeight Height of one vertical "level".
-     * @param game GameScreen ref.
-     */
-    public Spawner(int x, int y, int yHeight, GameScreen game) {
-        this.x = x;
-        this.y = y;
-        this.yHeight = yHeight;
-        this.game = game;
-    }
-
-    /**
-     * Update the timer waiting for the next enemy spawn.
-     * @param delta Time between previous update and now.
+     * Constructor that specifies a Spawner on one side of the world.
+     * Schedule it once to start it.
+     * @param side GameWorld.LEFT or GameWorld.RIGHT.
+     * @param random Seeded generator for spawn times and lanes.
      */
-    public void updateTimer(float delta) {
-        currWait -= delta;
-        if (currWait <= 0) {
-            spawn(Math.random());
-        }
+    public Spawner(int side, Random random) {
+        this.side = side;
+        this.random = random;
     }
 
     /**
-     * Spawn in a new enemy at a random height and reset the timer
-     * @param rand A double random number generated by Math.random().
+     * Spawn in a new enemy in a random lane and schedule the next one.
+     * One random number picks both the wait and the lane.
      */
-    private void spawn(double rand) {
-        // Reset the timer
-        currWait = (float) (rand * (MAX_WAIT - MIN_WAIT)) + MIN_WAIT;
-        // Spawn in an enemy based on height
-        if (rand < 1/3f) {
-            game.addEnemy(x, y);
-        } else if (rand < 2/3f) {
-            game.addEnemy(x, y + yHeight);
-        } else {
-            game.addEnemy(x, y + (yHeight * 2));
-        }
+    @Override
+    public void fire(WaveScheduler scheduler) {
+        double rand = random.nextDouble();
+        int lane = (int) (rand * GameWorld.LANES);
+        scheduler.getEvents().spawn(side, lane, EnemyStore.BASIC);
+        scheduler.schedule(this, time + (float) (rand * (MAX_WAIT - MIN_WAIT)) + MIN_WAIT);
     }
 
 }
@@ -0,0 +1,94 @@
+package com.jonso.ffighter;
+
+/**
+ * A lock-free ring of fixed-size telemetry records (spawns, kills,
+ * hits taken, attacks and frame times) for tuning from real sessions.
+ * The game thread logs into it and one background thread drains it to
+ * a file (see the desktop TelemetryWriter), so logging never waits on
+ * disk.
+ *
+ * Each record is RECORD_INTS ints: type, tick and two arguments. There
+ * is exactly one producer and one consumer; each owns one index, and
+ * the other only reads it, so volatile indices are all the syncing
+ * needed. Logging never blocks or allocates: when the ring is full the
+ * record is dropped and counted.
+ *
+ * @author Jonathan So
+ */
+public class TelemetryRing {
+
+    // RECORD TYPES
+    public static final int SPAWN = 0; // a: enemy slot, b: live enemies.
+    public static final int KILL = 1; // a: points scored.
+    public static final int HIT = 2; // a: damage taken, b: total hits taken.
+    public static final int ATTACK = 3; // a: attack id.
+    public static final int FRAME = 4; // a: frame time in microseconds, b: live entities.
+    public static final int TYPE_COUNT = 5;
+    private static final String[] NAMES = { "spawn", "kill", "hit", "attack", "frame" };
+
+    public static final int RECORD_INTS = 4; // type, tick, a, b.
+
+    private final int[] records; // RECORD_INTS per slot.
+    private final int mask; // Slots - 1; slots is a power of two.
+    private volatile long head; // Records ever logged; written only by the producer.
+    private volatile long tail; // Records ever taken; written only by the consumer.
+    private volatile int dropped; // Records dropped because the ring was full; producer only.
+
+    /**
+     * Constructor for the ring.
+     * @param capacity How many records fit; rounded up to a power of two.
+     */
+    public TelemetryRing(int capacity) {
+        int slots = 1;
+        while (slots < capacity) { slots <<= 1; }
+        records = new int[slots * RECORD_INTS];
+        mask = slots - 1;
+    }
+
+    /**
+     * Log a record; game thread only. Drops it if the ring is full.
+     * @param type One of the record types.
+     * @param tick The world tick it happened on.
+     * @param a First argument.
+     * @param b Second argument.
+     */
+    public void log(int type, int tick, int a, int b) {
+        long h = head;
+        if (h - tail > mask) {
+            dropped++;
+            return;
+        }
+        int i = (int) (h & mask) * RECORD_INTS;
+        records[i] = type;
+        records[i + 1] = tick;
+        records[i + 2] = a;
+        records[i + 3] = b;
+        head = h + 1; // Publishes the record to the consumer.
+    }
+
+    /**
+     * Copy waiting records out, oldest first; consumer thread only.
+     * @param out Where to copy them, RECORD_INTS ints per record.
+     * @return How many records were copied; at most out.length / RECORD_INTS.
+     */
+    public int drain(int[] out) {
+        long t = tail;
+        int count = (int) Math.min(head - t, out.length / RECORD_INTS);
+        for (int n = 0; n < count; n++) {
+            System.arraycopy(records, (int) ((t + n) & mask) * RECORD_INTS, out, n * RECORD_INTS, RECORD_INTS);
+        }
+        tail = t + count; // Hands the slots back to the producer.
+        return count;
+    }
+
+    /** GETTERS */
+    /** Name of a record type, or "type N" for one this build doesn't know (e.g. from a newer log). */
+    public static String getName(int type) {
+        return (type >= 0 && type < TYPE_COUNT) ? NAMES[type] : "type " + type;
+    }
+    public int getCapacity() { return mask + 1; }
+    /** Records waiting to be drained. */
+    public int size() { return (int) (head - tail); }
+    public long getLogged() { return head; }
+    public int getDropped() { return dropped; }
+}
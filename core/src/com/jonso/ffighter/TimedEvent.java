@@ -0,0 +1,40 @@
+package com.jonso.ffighter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Something a WaveScheduler should do at a set time. Events are
+ * ordered by time, and events due at the same time by the order they
+ * were scheduled in, so a run always fires them in the same order.
+ *
+ * An event with state of its own that changes as it fires writes it
+ * in save() and reads it back in load(), for WorldSnapshot.
+ *
+ * @author Jonathan So
+ */
+public abstract class TimedEvent implements Comparable<TimedEvent> {
+
+    float time; // World time the event is due, in seconds; set by the scheduler.
+    long order; // When it was scheduled, to break ties; set by the scheduler.
+
+    /**
+     * Do whatever the event does. An event may schedule itself again.
+     * @param scheduler The scheduler firing it.
+     */
+    public abstract void fire(WaveScheduler scheduler);
+
+    /** Write whatever state firing changes; nothing by default. */
+    void save(ByteBuffer out) { }
+
+    /** Read back what save() wrote. */
+    void load(ByteBuffer in) { }
+
+    @Override
+    public int compareTo(TimedEvent other) {
+        if (time != other.time) { return time < other.time ? -1 : 1; }
+        return order < other.order ? -1 : (order == other.order ? 0 : 1);
+    }
+
+    /** GETTERS */
+    public float getTime() { return time; }
+}
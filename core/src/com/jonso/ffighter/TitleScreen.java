@@ -1,4 +1,157 @@
 package com.jonso.ffighter;
 
-public class TitleScreen {
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/**
+ * The first screen of the game: loads every asset through the
+ * AssetManager a few milliseconds per frame, showing progress, and then
+ * warms up the game before handing over to the GameScreen:
+ * 1. Loading: AssetManager.update within a per-frame time budget.
+ * 2. Warm-up: run a throwaway GameWorld crowded with enemies for a
+ *    while, so the hot paths are compiled and the real world's
+ *    enemy arrays are already big enough, before the first real frame.
+ *
+ * @author Jonathan So
+ */
+public class TitleScreen implements Screen {
+    final FFighter game;
+
+    private OrthographicCamera camera;
+    private ShapeRenderer shapeRenderer; // For the progress bar
+
+    // LOADING AND WARM-UP
+    private GameScreen gameScreen; // Created once loading finishes.
+    private GameWorld scratch; // Throwaway world run during warm-up.
+    private int warmTicks; // Warm-up ticks run so far.
+
+    // CONSTANTS
+    private final int LOAD_BUDGET_MS = 8; // Time per frame spent loading.
+    private final int WARMUP_TICKS = 600; // Ticks of throwaway game to run.
+    private final long WARMUP_SEED = 0; // The throwaway game is the same every time.
+    private final int WARMUP_TICKS_PER_FRAME = 60;
+    private final int WARMUP_ENEMIES = 64; // Enemies kept alive during warm-up.
+    private final int ENEMY_RESERVE = 256; // Enemy slots reserved in the real world.
+    private final float LOAD_SHARE = 0.8f; // How much of the bar loading fills.
+    private final int BAR_WIDTH = 512;
+    private final int BAR_HEIGHT = 16;
+
+    /**
+     * Queue every asset and start loading.
+     * @param game The FFighter object.
+     */
+    public TitleScreen(final FFighter game) {
+        this.game = game;
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, GameWorld.WIDTH, GameWorld.HEIGHT);
+        shapeRenderer = new ShapeRenderer();
+        Assets.queueAll(game.assets);
+    }
+
+    /**
+     * Load a slice of the assets or run a slice of warm-up, then draw progress.
+     * @param delta Time from the previous frame to now.
+     */
+    @Override
+    public void render(float delta) {
+        float progress;
+        if (gameScreen == null) {
+            // 1. LOADING
+            if (game.assets.update(LOAD_BUDGET_MS)) {
+                gameScreen = new GameScreen(game);
+                gameScreen.getWorld().reserveEnemies(ENEMY_RESERVE);
+                TextureAtlas atlas = game.assets.get(Assets.ATLAS, TextureAtlas.class);
+                scratch = new GameWorld(atlas.findRegion(Assets.PLAYER), atlas.findRegion(Assets.ENEMY),
+                        game.assets.get(Assets.ATTACKS, AttackTable.class), WARMUP_SEED);
+            }
+            progress = game.assets.getProgress() * LOAD_SHARE;
+        } else if (warmTicks < WARMUP_TICKS) {
+            // 2. WARM-UP
+            warmUp(WARMUP_TICKS_PER_FRAME);
+            progress = LOAD_SHARE + ((1 - LOAD_SHARE) * warmTicks / WARMUP_TICKS);
+        } else {
+            // Done; on to the game.
+            scratch = null;
+            game.setScreen(gameScreen);
+            dispose();
+            return;
+        }
+
+        ScreenUtils.clear(0, 0, 0, 1);
+        camera.update();
+        game.batch.setProjectionMatrix(camera.combined);
+        shapeRenderer.setProjectionMatrix(camera.combined);
+
+        float barX = (GameWorld.WIDTH - BAR_WIDTH) / 2f;
+        float barY = GameWorld.HEIGHT / 3f;
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(Color.DARK_GRAY);
+        shapeRenderer.rect(barX, barY, BAR_WIDTH, BAR_HEIGHT);
+        shapeRenderer.setColor(Color.WHITE);
+        shapeRenderer.rect(barX, barY, BAR_WIDTH * progress, BAR_HEIGHT);
+        shapeRenderer.end();
+
+        game.batch.begin();
+        game.font.draw(game.batch, "Forward Fighter", barX, barY + 96);
+        game.font.draw(game.batch, gameScreen == null ? "Loading..." : "Warming up...", barX, barY + 48);
+        game.batch.end();
+    }
+
+    /**
+     * Run some ticks of the throwaway world, keeping it full of enemies
+     * and attacking constantly so every collision path gets exercised.
+     * @param ticks How many ticks to run.
+     */
+    private void warmUp(int ticks) {
+        float tickTime = 1f / game.tickRate;
+        for (int i = 0; i < ticks; i++, warmTicks++) {
+            EnemyStore enemies = scratch.getEnemies();
+            while (enemies.size() < WARMUP_ENEMIES) {
+                int lane = enemies.size() % 3;
+                int x = (enemies.size() % 2 == 0) ? -enemies.getWidth() : GameWorld.WIDTH;
+                scratch.addEnemy(x, GameWorld.HEIGHT / 3 + (lane * enemies.getHeight()));
+            }
+            if (warmTicks % 8 == 0) {
+                int attackCount = scratch.getPlayer().getAttacks().size();
+                scratch.queueAttack((warmTicks / 8) % attackCount);
+            }
+            scratch.tick(tickTime);
+        }
+    }
+
+    /** Dispose of any disposable resources. The assets stay loaded for the game. */
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+
+    /** REQUISITE METHODS */
+    @Override
+    public void show() {
+
+    }
+
+    @Override
+    public void resize(int width, int height) {
+
+    }
+
+    @Override
+    public void pause() {
+
+    }
+
+    @Override
+    public void resume() {
+
+    }
+
+    @Override
+    public void hide() {
+
+    }
 }
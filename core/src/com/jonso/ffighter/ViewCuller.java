@@ -0,0 +1,56 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+
+/**
+ * Decides what's on screen, so only visible sprites are sent to the
+ * SpriteBatch. For our unrotated OrthographicCamera the view frustum
+ * is just a rectangle in world space, so each test is four compares.
+ * Counts what it passed and culled since the last update().
+ *
+ * @author Jonathan So
+ */
+public class ViewCuller {
+
+    private float minX, minY, maxX, maxY; // The camera's view, in world space.
+    private int visible, culled; // Results since the last update().
+
+    /**
+     * Take the view from the camera and reset the counts; call once per frame.
+     * @param camera The camera, already updated.
+     */
+    public void update(OrthographicCamera camera) {
+        float halfW = camera.viewportWidth * camera.zoom / 2;
+        float halfH = camera.viewportHeight * camera.zoom / 2;
+        minX = camera.position.x - halfW;
+        maxX = camera.position.x + halfW;
+        minY = camera.position.y - halfH;
+        maxY = camera.position.y + halfH;
+        visible = 0;
+        culled = 0;
+    }
+
+    /**
+     * Whether a box overlaps the view, counting the answer.
+     * @param x Left edge.
+     * @param y Bottom edge.
+     * @param width Width of the box.
+     * @param height Height of the box.
+     */
+    public boolean isVisible(float x, float y, float width, float height) {
+        if (x < maxX && x + width > minX && y < maxY && y + height > minY) {
+            visible++;
+            return true;
+        }
+        culled++;
+        return false;
+    }
+
+    /** GETTERS */
+    public float getMinX() { return minX; }
+    public float getMinY() { return minY; }
+    public float getMaxX() { return maxX; }
+    public float getMaxY() { return maxY; }
+    public int getVisible() { return visible; }
+    public int getCulled() { return culled; }
+}
@@ -0,0 +1,188 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+
+/**
+ * Fires TimedEvents (spawners, scripted waves) at their due time.
+ * Events wait in a priority queue ordered by time, so a tick where
+ * nothing is due costs one peek, however many events are pending.
+ *
+ * Wave scripts are read lazily: only waves starting within LOOKAHEAD
+ * seconds are parsed and queued, so a long script never sits in
+ * memory all at once.
+ *
+ * The scheduler's state can be saved and restored for WorldSnapshot.
+ * Long-lived events (the spawners, a horde director) are registered,
+ * so a restore puts the same objects back on the queue; any other
+ * pending event must be a SpawnEvent, which is recreated. Each script
+ * being read is saved as its line and start time, and a restore seeks
+ * it back there; scripts must be read from a file for that, and added
+ * in the same order in every world.
+ *
+ * @author Jonathan So
+ */
+public class WaveScheduler {
+
+    private GameEventQueue events; // Where spawns are queued.
+    private PriorityQueue<TimedEvent> queue; // Pending events, soonest first.
+    private ArrayList<WaveScript> scripts; // Scripts with waves left to read.
+    private ArrayList<WaveScript> added; // Every script ever added, by id, for snapshots.
+    private ArrayList<TimedEvent> registered; // Long-lived events, by id, for snapshots.
+    private float time; // Seconds simulated so far.
+    private long scheduled; // Events ever scheduled; also breaks ties between them.
+    private long fired; // Events ever fired.
+
+    private final float LOOKAHEAD = 1f; // Seconds of script to have queued ahead of time.
+
+    /**
+     * Constructor for the scheduler.
+     * @param events The world's event queue, for events to push spawns onto.
+     */
+    public WaveScheduler(GameEventQueue events) {
+        this.events = events;
+        queue = new PriorityQueue<TimedEvent>();
+        scripts = new ArrayList<WaveScript>();
+        added = new ArrayList<WaveScript>();
+        registered = new ArrayList<TimedEvent>();
+    }
+
+    /**
+     * Register a long-lived event, so snapshots restore the same object
+     * rather than a copy; register in the same order in every world.
+     * @param event The event.
+     */
+    public void register(TimedEvent event) {
+        registered.add(event);
+    }
+
+    /**
+     * Queue an event. An event may only be queued once at a time.
+     * @param event The event.
+     * @param at World time it's due, in seconds; if already past, it fires on the next update.
+     */
+    public void schedule(TimedEvent event, float at) {
+        event.time = at;
+        event.order = scheduled++;
+        queue.add(event);
+    }
+
+    /**
+     * Take an event off the queue, if it's on it.
+     * @param event The event.
+     */
+    public void cancel(TimedEvent event) {
+        queue.remove(event);
+    }
+
+    /**
+     * Play a wave script, with its times measured from now.
+     * @param script The script.
+     */
+    public void addScript(WaveScript script) {
+        script.setStart(time);
+        scripts.add(script);
+        added.add(script);
+    }
+
+    /**
+     * Advance time, read any script waves coming up, and fire every event now due
+     * (including ones an event schedules for now while firing).
+     * @param delta The fixed tick length, in seconds.
+     */
+    public void update(float delta) {
+        time += delta;
+        for (int i = scripts.size() - 1; i >= 0; i--) {
+            WaveScript script = scripts.get(i);
+            while (script.hasNext() && script.peekTime() <= time + LOOKAHEAD) {
+                float at = script.peekTime();
+                schedule(script.next(), at);
+            }
+            if (!script.hasNext()) {
+                script.close();
+                scripts.remove(i);
+            }
+        }
+        while (!queue.isEmpty() && queue.peek().time <= time) {
+            fired++;
+            queue.poll().fire(this);
+        }
+    }
+
+    /**
+     * Write the clock, where each script is, and every pending event, for WorldSnapshot.
+     * @param out Where to write.
+     */
+    public void save(ByteBuffer out) {
+        out.putFloat(time);
+        out.putLong(scheduled);
+        out.putLong(fired);
+        out.putInt(scripts.size());
+        for (WaveScript script : scripts) {
+            if (!script.isSeekable()) { throw new GdxRuntimeException("Can't save a wave script not read from a file"); }
+            out.putInt(added.indexOf(script));
+            out.putFloat(script.getStart());
+            out.putInt(script.getLine());
+        }
+        out.putInt(queue.size());
+        for (TimedEvent event : queue) {
+            int id = registered.indexOf(event);
+            if (id < 0 && !(event instanceof SpawnEvent)) {
+                throw new GdxRuntimeException("Can't save an unregistered " + event.getClass().getName());
+            }
+            out.putInt(id); // -1 for a SpawnEvent.
+            out.putFloat(event.time);
+            out.putLong(event.order);
+            event.save(out);
+        }
+    }
+
+    /**
+     * Replace the clock, the scripts' places and every pending event with what save() wrote.
+     * @param in Where to read.
+     */
+    public void restore(ByteBuffer in) {
+        time = in.getFloat();
+        scheduled = in.getLong();
+        fired = in.getLong();
+        ArrayList<WaveScript> playing = new ArrayList<WaveScript>(scripts);
+        scripts.clear();
+        for (int n = in.getInt(); n > 0; n--) {
+            int id = in.getInt();
+            if (id < 0 || id >= added.size()) { throw new GdxRuntimeException("Snapshot is from another world"); }
+            WaveScript script = added.get(id);
+            script.setStart(in.getFloat());
+            script.seek(in.getInt());
+            scripts.add(script);
+        }
+        for (WaveScript script : playing) {
+            if (!scripts.contains(script)) { script.close(); }
+        }
+        queue.clear();
+        for (int n = in.getInt(); n > 0; n--) {
+            int id = in.getInt();
+            if (id >= registered.size()) { throw new GdxRuntimeException("Snapshot is from another world"); }
+            TimedEvent event = id < 0 ? new SpawnEvent(0, 0, 0, 0, 0) : registered.get(id);
+            event.time = in.getFloat();
+            event.order = in.getLong();
+            event.load(in);
+            queue.add(event);
+        }
+    }
+
+    /** Upper bound on the bytes save() writes now. */
+    public int getSaveSize() {
+        return 32 + (scripts.size() * 12) + (queue.size() * 40);
+    }
+
+    /** GETTERS */
+    public GameEventQueue getEvents() { return events; }
+    public float getTime() { return time; }
+    public int getPending() { return queue.size(); }
+    public long getFired() { return fired; }
+    /** Whether any script still has waves to read. */
+    public boolean isScripted() { return !scripts.isEmpty(); }
+}
@@ -0,0 +1,174 @@
+package com.jonso.ffighter;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads scripted waves from a text file one line at a time, as the
+ * WaveScheduler asks for them. Each line is one wave:
+ *
+ *   time side lane archetype count interval
+ *
+ * time: seconds from the start of the script; lines must be in time order.
+ * side: left or right. lane: 0 (lowest) to 2. archetype: basic.
+ * count: how many enemies. interval: seconds between them.
+ * Blank lines and lines starting with # are skipped.
+ *
+ * Only the next wave is parsed ahead of time, so a script of any
+ * length reads in constant memory. A script read from a file can seek
+ * back to an earlier line (for WorldSnapshot) by reading it again.
+ *
+ * @author Jonathan So
+ */
+public class WaveScript {
+
+    private BufferedReader reader; // null once closed.
+    private FileHandle file; // Where to read the script again from; null if it came from a Reader.
+    private String name; // For error messages.
+    private int lineNumber; // Line the next wave came from.
+    private float start; // World time the script's time 0 maps to.
+
+    // THE NEXT WAVE, parsed but not yet handed out; null at the end of the file.
+    private SpawnEvent next;
+    private float nextTime;
+
+    /**
+     * Constructor for a script; reads up to its first wave.
+     * @param reader Where to read the script from; closed once it's all read.
+     * @param name The script's name, for error messages.
+     */
+    public WaveScript(Reader reader, String name) {
+        this.reader = new BufferedReader(reader);
+        this.name = name;
+        advance();
+    }
+
+    /**
+     * Constructor for a script in a file, which can be seeked.
+     * @param file The script's file; its path is used in error messages.
+     */
+    public WaveScript(FileHandle file) {
+        this(file.reader(), file.path());
+        this.file = file;
+    }
+
+    /** Whether there's another wave. */
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /** World time the next wave is due. */
+    public float peekTime() {
+        return start + nextTime;
+    }
+
+    /**
+     * Hand out the next wave, and read the one after.
+     * @return The wave; schedule it at the peekTime() read before calling this.
+     */
+    public SpawnEvent next() {
+        SpawnEvent wave = next;
+        advance();
+        return wave;
+    }
+
+    /** Stop reading the script. */
+    public void close() {
+        next = null;
+        if (reader == null) { return; }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // Nothing left to read anyway.
+        }
+        reader = null;
+    }
+
+    /**
+     * Move to the wave on a line returned by getLine(), reading the file
+     * again from the top if that line is behind us or we were closed.
+     * @param line The line.
+     */
+    void seek(int line) {
+        if (line < lineNumber || reader == null) {
+            if (file == null) { throw new GdxRuntimeException("Can't rewind wave script " + name + "; it isn't a file"); }
+            close();
+            reader = new BufferedReader(file.reader());
+            lineNumber = 0;
+            advance();
+        }
+        while (next != null && lineNumber < line) { advance(); }
+    }
+
+    /** Set the world time the script's time 0 maps to; done by the scheduler. */
+    void setStart(float start) {
+        this.start = start;
+    }
+
+    /** Parse the next wave line into next, or set it to null at the end. */
+    private void advance() {
+        float previous = next == null ? 0 : nextTime;
+        next = null;
+        if (reader == null) { return; }
+        String line;
+        try {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.length() == 0 || line.charAt(0) == '#') { continue; }
+                parse(line.split("\\s+"));
+                if (nextTime < previous) {
+                    throw error("waves must be in time order");
+                }
+                return;
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read wave script " + name, e);
+        }
+    }
+
+    /** Turn one line's fields into next and nextTime. */
+    private void parse(String[] fields) {
+        if (fields.length != 6) {
+            throw error("expected: time side lane archetype count interval");
+        }
+        int side;
+        if (fields[1].equals("left")) {
+            side = GameWorld.LEFT;
+        } else if (fields[1].equals("right")) {
+            side = GameWorld.RIGHT;
+        } else {
+            throw error("side must be left or right");
+        }
+        int archetype = EnemyStore.archetypeOf(fields[3]);
+        if (archetype < 0) {
+            throw error("unknown archetype " + fields[3]);
+        }
+        try {
+            nextTime = Float.parseFloat(fields[0]);
+            int lane = Integer.parseInt(fields[2]);
+            int count = Integer.parseInt(fields[4]);
+            float interval = Float.parseFloat(fields[5]);
+            if (lane < 0 || lane >= GameWorld.LANES) { throw error("lane must be 0 to " + (GameWorld.LANES - 1)); }
+            if (count < 1) { throw error("count must be at least 1"); }
+            next = new SpawnEvent(side, lane, archetype, count, interval);
+        } catch (NumberFormatException e) {
+            throw error("bad number (" + e.getMessage() + ")");
+        }
+    }
+
+    private GdxRuntimeException error(String message) {
+        return new GdxRuntimeException(name + ":" + lineNumber + ": " + message);
+    }
+
+    /** GETTERS */
+    /** Line the next wave comes from, or the line count once there are no more. */
+    public int getLine() { return lineNumber; }
+    public float getStart() { return start; }
+    /** Whether seek() can go back, i.e. the script came from a file. */
+    public boolean isSeekable() { return file != null; }
+}
@@ -0,0 +1,65 @@
+package com.jonso.ffighter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A saved GameWorld state, for rolling back, retrying or seeking a
+ * replay. capture() saves a world into a reusable ByteBuffer, only
+ * reallocating when the world has outgrown it, and restore() puts the
+ * world back exactly; the same input from there plays out the same.
+ * Enemies are copied an array at a time, so both are cheap enough to
+ * run several times per tick.
+ *
+ * Capture and restore only between ticks. A snapshot can be restored
+ * into the world it came from, or another one created the same way.
+ *
+ * @author Jonathan So
+ */
+public class WorldSnapshot {
+
+    private ByteBuffer buffer;
+    private long tick = -1; // Tick the world was on when captured; -1 if empty.
+
+    /**
+     * Constructor for an empty snapshot.
+     * @param capacity Bytes to allocate up front; see GameWorld.getSaveSize().
+     */
+    public WorldSnapshot(int capacity) {
+        buffer = allocate(capacity);
+    }
+
+    /**
+     * Save a world, replacing whatever was saved before.
+     * @param world The world, between ticks.
+     */
+    public void capture(GameWorld world) {
+        int needed = world.getSaveSize();
+        if (buffer.capacity() < needed) { buffer = allocate(needed + (needed / 2)); }
+        buffer.clear();
+        world.save(buffer);
+        buffer.flip();
+        tick = world.getTickCount();
+    }
+
+    /**
+     * Put a world back the way it was when captured.
+     * @param world The world, between ticks.
+     */
+    public void restore(GameWorld world) {
+        buffer.rewind();
+        world.restore(buffer);
+    }
+
+    /** Native order, so enemy arrays copy straight across. */
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /** GETTERS */
+    public boolean isEmpty() { return tick < 0; }
+    public long getTick() { return tick; }
+    /** Bytes the last capture took. */
+    public int getSize() { return buffer.limit(); }
+    public int getCapacity() { return buffer.capacity(); }
+}
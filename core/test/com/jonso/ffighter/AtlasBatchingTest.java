@@ -0,0 +1,97 @@
+package com.jonso.ffighter;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that drawing the player and enemies from the packed atlas takes
+ * one SpriteBatch draw call, where separate textures take one per switch.
+ * GL is mocked, so only the batch's own bookkeeping runs; textures are
+ * mocks with the atlas page's size, and regions use the atlas's bounds.
+ * Runs from android/assets, like the game.
+ *
+ * @author Jonathan So
+ */
+public class AtlasBatchingTest {
+
+    private SpriteBatch batch;
+
+    @Before
+    public void setUp() {
+        GdxNativesLoader.load(); // The batch's vertex buffers are native.
+        Gdx.app = mock(Application.class);
+        Gdx.graphics = mock(Graphics.class);
+        Gdx.gl = Gdx.gl20 = mock(GL20.class);
+        batch = new SpriteBatch(100, mock(ShaderProgram.class));
+    }
+
+    @After
+    public void tearDown() {
+        batch.dispose();
+        Gdx.app = null;
+        Gdx.graphics = null;
+        Gdx.gl = Gdx.gl20 = null;
+    }
+
+    @Test
+    public void atlasRegionsDrawInOneCall() {
+        TextureAtlasData atlas = new TextureAtlasData(new FileHandle(Assets.ATLAS), new FileHandle("atlas"), false);
+        TextureAtlasData.Region player = findRegion(atlas, Assets.PLAYER);
+        TextureAtlasData.Region enemy = findRegion(atlas, Assets.ENEMY);
+        assertEquals("sprites packed onto one page", player.page, enemy.page);
+        Texture page = texture((int) player.page.width, (int) player.page.height);
+        drawFrame(new TextureRegion(page, player.left, player.top, player.width, player.height),
+                new TextureRegion(page, enemy.left, enemy.top, enemy.width, enemy.height));
+        assertEquals(1, batch.renderCalls);
+    }
+
+    @Test
+    public void separateTexturesDrawInTwoCalls() {
+        drawFrame(new TextureRegion(texture(64, 128)), new TextureRegion(texture(64, 64)));
+        assertEquals(2, batch.renderCalls);
+    }
+
+    /** Draw the player, then a crowd of enemies, as GameScreen's entity pass does. */
+    private void drawFrame(TextureRegion player, TextureRegion enemy) {
+        batch.begin();
+        batch.draw(player, 0, 0);
+        for (int i = 0; i < 20; i++) {
+            batch.draw(enemy, i * 40, 0);
+        }
+        batch.end();
+    }
+
+    /** A mock texture of the given size. */
+    private static Texture texture(int width, int height) {
+        Texture texture = mock(Texture.class);
+        when(texture.getWidth()).thenReturn(width);
+        when(texture.getHeight()).thenReturn(height);
+        return texture;
+    }
+
+    private static TextureAtlasData.Region findRegion(TextureAtlasData atlas, String name) {
+        for (TextureAtlasData.Region region : atlas.getRegions()) {
+            if (region.name.equals(name)) {
+                return region;
+            }
+        }
+        throw new IllegalStateException("No region named " + name + " in the sprite atlas");
+    }
+}
@@ -0,0 +1,115 @@
+package com.jonso.ffighter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.management.ThreadMXBean;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks the GameEventQueue hands events back in the order they were
+ * pushed, across the ring wrapping and growing, and that once it has
+ * grown to a tick's worth of events it never allocates again, by its
+ * own grow count and by the allocation count the JVM keeps per thread.
+ *
+ * @author Jonathan So
+ */
+public class GameEventQueueTest {
+
+    private final int CAPACITY = 8;
+
+    @Test
+    public void drainsInOrderAcrossTheWrap() {
+        GameEventQueue queue = new GameEventQueue(CAPACITY);
+        int pushed = 0, taken = 0;
+        // Push 5, take 5, so each round starts further round the ring.
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 5; i++) {
+                queue.push(GameEventQueue.SCORE, pushed, pushed * 2, pushed * 3);
+                pushed++;
+            }
+            while (queue.next()) {
+                assertEquals(GameEventQueue.SCORE, queue.getType());
+                assertEquals(taken, queue.getA());
+                assertEquals(taken * 2, queue.getB());
+                assertEquals(taken * 3, queue.getC());
+                taken++;
+            }
+        }
+        assertEquals(pushed, taken);
+        assertEquals(0, queue.getGrows());
+    }
+
+    @Test
+    public void growingKeepsTheOrder() {
+        GameEventQueue queue = new GameEventQueue(CAPACITY);
+        // Move head off 0 first, so the grow has to unwrap the ring.
+        for (int i = 0; i < 3; i++) { queue.damage(-1); }
+        for (int i = 0; i < 3; i++) { queue.next(); }
+        for (int i = 0; i < CAPACITY * 3; i++) { queue.score(i); }
+        assertTrue(queue.getGrows() > 0);
+        for (int i = 0; i < CAPACITY * 3; i++) {
+            assertTrue(queue.next());
+            assertEquals(i, queue.getA());
+        }
+        assertFalse(queue.next());
+    }
+
+    @Test
+    public void drainToKeepsTheOrder() {
+        GameEventQueue chunk = new GameEventQueue(CAPACITY);
+        GameEventQueue target = new GameEventQueue(CAPACITY);
+        target.damage(1);
+        chunk.despawn(4, EnemyLifecycle.FELL);
+        chunk.spawn(1, 2, 3);
+        chunk.drainTo(target);
+        assertTrue(chunk.isEmpty());
+        assertEquals(3, target.size());
+        target.next();
+        assertEquals(GameEventQueue.DAMAGE, target.getType());
+        target.next();
+        assertEquals(GameEventQueue.DESPAWN, target.getType());
+        assertEquals(4, target.getA());
+        assertEquals(EnemyLifecycle.FELL, target.getB());
+        target.next();
+        assertEquals(GameEventQueue.SPAWN, target.getType());
+        assertEquals(3, target.getC());
+    }
+
+    @Test
+    public void steadyStateDoesNotGrow() {
+        GameEventQueue queue = new GameEventQueue(CAPACITY);
+        for (int i = 0; i < CAPACITY * 2; i++) { queue.score(i); }
+        while (queue.next()) { }
+        int grows = queue.getGrows();
+        int capacity = queue.getCapacity();
+        for (int tick = 0; tick < 1000; tick++) {
+            for (int i = 0; i < CAPACITY * 2; i++) { queue.score(i); }
+            while (queue.next()) { }
+        }
+        assertEquals(grows, queue.getGrows());
+        assertEquals(capacity, queue.getCapacity());
+    }
+
+    @Test
+    public void steadyStateDoesNotAllocate() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        GameEventQueue queue = new GameEventQueue(CAPACITY);
+        for (int i = 0; i < CAPACITY * 2; i++) { queue.score(i); }
+        while (queue.next()) { }
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int tick = 0; tick < 10000; tick++) {
+            for (int i = 0; i < CAPACITY * 2; i++) { queue.spawn(i, i, i); }
+            while (queue.next()) { }
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertTrue(allocated + " bytes allocated", allocated < 1024); // Allowing for the measurement itself.
+    }
+}
@@ -0,0 +1,115 @@
+package com.jonso.ffighter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.Input;
+
+import org.junit.Test;
+
+/**
+ * Checks the InputQueue's buffer: a press made while the player is
+ * recovering is used on the first tick they can attack, unless it
+ * waited longer than the window; presses made while they can attack
+ * never expire. The game's own attacks have no recovery, so these use a
+ * table of two attacks that do, with hitboxes of different widths to
+ * tell them apart.
+ *
+ * @author Jonathan So
+ */
+public class InputQueueTest {
+
+    private final float TICK = 1 / 60f;
+    private final int SLOW = 0; // Attack ids in the table below.
+    private final int FAST = 1;
+
+    @Test
+    public void pressDuringRecoveryIsUsedWhenItEnds() {
+        GameWorld world = createWorld();
+        InputQueue queue = new InputQueue(world.getPlayer().getAttacks(), 10);
+        world.setInput(queue);
+        queue.keyDown(Input.Keys.F);
+        world.tick(TICK);
+        assertEquals(SLOW, currentAttack(world));
+        tickUntilRecovering(world);
+
+        queue.keyDown(Input.Keys.J);
+        world.tick(TICK);
+        assertEquals("buffered while recovering", 1, queue.size());
+        assertEquals(-1, currentAttack(world));
+        int ticks = 0;
+        while (!world.getPlayer().canAttack()) {
+            world.tick(TICK);
+            ticks++;
+            assertTrue("recovery ends", ticks < 60);
+        }
+        world.tick(TICK);
+        assertEquals("used on the first tick the player can attack", FAST, currentAttack(world));
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.getDropped());
+    }
+
+    @Test
+    public void pressOlderThanWindowIsDroppedWhileRecovering() throws InterruptedException {
+        GameWorld world = createWorld();
+        InputQueue queue = new InputQueue(world.getPlayer().getAttacks(), 0.001f);
+        world.setInput(queue);
+        queue.keyDown(Input.Keys.F);
+        world.tick(TICK);
+        tickUntilRecovering(world);
+
+        queue.keyDown(Input.Keys.J);
+        Thread.sleep(10);
+        world.tick(TICK);
+        assertEquals(0, queue.size());
+        assertEquals(1, queue.getDropped());
+    }
+
+    @Test
+    public void pressIsNotDroppedWhileThePlayerCanAttack() throws InterruptedException {
+        GameWorld world = createWorld();
+        InputQueue queue = new InputQueue(world.getPlayer().getAttacks(), 0.001f);
+        world.setInput(queue);
+        queue.keyDown(Input.Keys.J);
+        Thread.sleep(10); // e.g. a long frame before the next tick.
+        world.tick(TICK);
+        assertEquals(FAST, currentAttack(world));
+        assertEquals(0, queue.getDropped());
+    }
+
+    @Test
+    public void oldestPressIsUsedFirst() {
+        GameWorld world = createWorld();
+        InputQueue queue = new InputQueue(world.getPlayer().getAttacks(), 10);
+        world.setInput(queue);
+        queue.keyDown(Input.Keys.J);
+        queue.keyDown(Input.Keys.F);
+        world.tick(TICK);
+        assertEquals(FAST, currentAttack(world));
+        assertEquals(1, queue.size());
+    }
+
+    /** A world whose player has a slow attack on F and a fast one on J, both with recovery. */
+    private GameWorld createWorld() {
+        AttackTable attacks = new AttackTable(new AttackData[] {
+                new AttackData("slow", Input.Keys.F, 0, 0, 0, 0, 10, 10, 0.05f, 0.5f, 0),
+                new AttackData("fast", Input.Keys.J, 1, 0, 0, 0, 20, 10, 0.05f, 0.2f, 0),
+        }, new String[] { "attack" });
+        return new GameWorld(null, 64, 128, 64, 64, attacks, 1);
+    }
+
+    /** Tick until the current attack's hitbox is gone and the player is recovering. */
+    private void tickUntilRecovering(GameWorld world) {
+        for (int i = 0; i < 60 && world.getPlayer().canAttack(); i++) {
+            world.tick(TICK);
+        }
+        assertFalse(world.getPlayer().canAttack());
+    }
+
+    /** The attack whose hitbox is active, told apart by width; -1 for none. */
+    private int currentAttack(GameWorld world) {
+        if (world.getPlayer().getActive().size() < 2) { return -1; } // Just the hurtbox.
+        return world.getPlayer().getActive().get(1).getRect().width == 10 ? SLOW : FAST;
+    }
+}
@@ -0,0 +1,108 @@
+package com.jonso.ffighter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Records a run, writes it out and reads it back, then plays it into a
+ * fresh world and checks that world ends on the recording's checksum,
+ * as HeadlessRunner --replay does. Also checks a world that doesn't
+ * match the recording is caught.
+ *
+ * @author Jonathan So
+ */
+public class ReplayTest {
+
+    private final int TICK_RATE = 60;
+    private final int TICKS = 20 * TICK_RATE; // Long enough for spawns, kills and hits.
+    private final long SEED = 7;
+
+    @Test
+    public void playbackMatchesRecording() throws IOException {
+        GameWorld recorded = createWorld(SEED);
+        ReplayRecorder recorder = new ReplayRecorder(new PressEvery(SEED, 7), recorded, TICK_RATE);
+        recorder.getReplay().setSettings(null, null, 1);
+        recorded.setInput(recorder);
+        run(recorded, TICKS);
+        Replay replay = readBack(recorder.finish(recorded));
+        assertTrue("the run did something", replay.getActionCount() > 0 && recorded.getScore() > 0);
+        assertEquals(recorded.getChecksum(), replay.getEndChecksum());
+        assertTrue(replay.hasSettings());
+        assertEquals(1, replay.getOffscreenInterval());
+
+        GameWorld played = createWorld(replay.getSeed());
+        ReplayPlayer player = new ReplayPlayer(replay);
+        played.setInput(player);
+        while (!player.isFinished(played)) {
+            played.tick(1f / replay.getTickRate());
+        }
+        assertTrue("diverged at tick " + player.getDivergedAt(), player.matches());
+        assertEquals(recorded.getScore(), played.getScore());
+        assertEquals(recorded.getChecksum(), played.getChecksum());
+    }
+
+    @Test
+    public void divergenceIsCaught() throws IOException {
+        GameWorld recorded = createWorld(SEED);
+        ReplayRecorder recorder = new ReplayRecorder(new PressEvery(SEED, 7), recorded, TICK_RATE);
+        recorded.setInput(recorder);
+        run(recorded, TICKS);
+        Replay replay = readBack(recorder.finish(recorded));
+
+        GameWorld played = createWorld(SEED + 1); // Spawns differ from the first tick.
+        ReplayPlayer player = new ReplayPlayer(replay);
+        played.setInput(player);
+        while (!player.isFinished(played)) {
+            played.tick(1f / replay.getTickRate());
+        }
+        assertFalse(player.matches());
+        assertTrue(player.getDivergedAt() >= 0 && player.getDivergedAt() <= TICKS);
+    }
+
+    /** Write a replay to a temporary file and read it back. */
+    private Replay readBack(Replay replay) throws IOException {
+        File file = File.createTempFile("replay", ".ffr");
+        file.deleteOnExit();
+        replay.write(new FileHandle(file));
+        return Replay.read(new FileHandle(file));
+    }
+
+    /** A world with the game's attacks, read from attacks.json. */
+    private GameWorld createWorld(long seed) {
+        AttackTable attacks = AttackTable.load(new FileHandle(Assets.ATTACKS));
+        return new GameWorld(null, 64, 128, 64, 64, attacks, seed);
+    }
+
+    private void run(GameWorld world, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            world.tick(1f / TICK_RATE);
+        }
+    }
+
+    /** Presses a seeded random attack every few ticks, like the headless ScriptedInput. */
+    private static class PressEvery implements InputSource {
+
+        private Random random;
+        private int interval;
+
+        PressEvery(long seed, int interval) {
+            this.random = new Random(seed);
+            this.interval = interval;
+        }
+
+        @Override
+        public int poll(GameWorld world) {
+            if (world.getTickCount() % interval != 0) { return AttackTable.NONE; }
+            return random.nextInt(world.getPlayer().getAttacks().size());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.jonso.ffighter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+import org.junit.Test;
+
+/**
+ * Checks that the SpatialHash broadphase, followed by the overlap test,
+ * finds exactly the pairs a brute-force loop over every pair finds.
+ * Boxes are random, and some are snapped to cell edges so they straddle
+ * two or four cells; worlds include negative coordinates.
+ *
+ * @author Jonathan So
+ */
+public class SpatialHashTest {
+
+    private final float CELL = 64; // Cell size; boxes are up to 1.5 cells wide.
+    private final int ROUNDS = 200; // Random worlds tried.
+
+    @Test
+    public void matchesBruteForce() {
+        RandomXS128 random = new RandomXS128(1234);
+        for (int round = 0; round < ROUNDS; round++) {
+            Rectangle[] boxes = randomBoxes(random, 1 + random.nextInt(150));
+            // Few buckets on some rounds, so unrelated cells share buckets.
+            SpatialHash hash = new SpatialHash(CELL, random.nextBoolean() ? 4 : 1024);
+            for (int i = 0; i < boxes.length; i++) {
+                hash.insert(i, boxes[i]);
+            }
+            assertEquals("round " + round, bruteForce(boxes), hashed(hash, boxes));
+        }
+    }
+
+    @Test
+    public void queryIsSortedAndUnique() {
+        SpatialHash hash = new SpatialHash(CELL, 2);
+        // A box covering many cells, all hashing into two buckets.
+        hash.insert(3, -200, -200, 400, 400);
+        hash.insert(1, 0, 0, 10, 10);
+        IntArray out = new IntArray();
+        hash.query(-200, -200, 400, 400, out);
+        assertEquals(2, out.size);
+        assertEquals(1, out.get(0));
+        assertEquals(3, out.get(1));
+    }
+
+    @Test
+    public void clearEmptiesTheHash() {
+        SpatialHash hash = new SpatialHash(CELL, 16);
+        hash.insert(0, 10, 10, 20, 20);
+        hash.clear();
+        IntArray out = new IntArray();
+        hash.query(0, 0, 100, 100, out);
+        assertEquals(0, out.size);
+    }
+
+    /** Random boxes, about a third of them snapped to straddle cell edges. */
+    private Rectangle[] randomBoxes(RandomXS128 random, int count) {
+        float extent = CELL * (2 + random.nextInt(10)); // Crowded to sparse.
+        Rectangle[] boxes = new Rectangle[count];
+        for (int i = 0; i < count; i++) {
+            float width = 1 + random.nextFloat() * CELL * 1.5f;
+            float height = 1 + random.nextFloat() * CELL * 1.5f;
+            float x = (random.nextFloat() * 2 - 1) * extent;
+            float y = (random.nextFloat() * 2 - 1) * extent;
+            if (random.nextInt(3) == 0) {
+                // Centre the box on a cell corner.
+                x = Math.round(x / CELL) * CELL - width / 2;
+                y = Math.round(y / CELL) * CELL - height / 2;
+            }
+            boxes[i] = new Rectangle(x, y, width, height);
+        }
+        return boxes;
+    }
+
+    /** Every overlapping pair i < j, found the O(n^2) way, as "i,j" lines. */
+    private String bruteForce(Rectangle[] boxes) {
+        StringBuilder pairs = new StringBuilder();
+        for (int i = 0; i < boxes.length; i++) {
+            for (int j = i + 1; j < boxes.length; j++) {
+                if (boxes[i].overlaps(boxes[j])) {
+                    pairs.append(i).append(',').append(j).append('\n');
+                }
+            }
+        }
+        return pairs.toString();
+    }
+
+    /** Every overlapping pair i < j, found through the hash, in the same form. */
+    private String hashed(SpatialHash hash, Rectangle[] boxes) {
+        StringBuilder pairs = new StringBuilder();
+        IntArray candidates = new IntArray();
+        for (int i = 0; i < boxes.length; i++) {
+            hash.query(boxes[i], candidates);
+            for (int k = 0; k < candidates.size; k++) {
+                int j = candidates.get(k);
+                if (k > 0) {
+                    assertTrue("candidates sorted and unique", candidates.get(k - 1) < j);
+                }
+                if (j > i && boxes[i].overlaps(boxes[j])) {
+                    pairs.append(i).append(',').append(j).append('\n');
+                }
+            }
+        }
+        return pairs.toString();
+    }
+}
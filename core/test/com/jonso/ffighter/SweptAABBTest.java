@@ -0,0 +1,84 @@
+package com.jonso.ffighter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.math.Rectangle;
+
+import org.junit.Test;
+
+/**
+ * Checks SweptAABB's time of impact for boxes moving into, past and
+ * alongside a still one, and that an enemy moving far enough in one
+ * tick to jump clean over a thin hitbox still hits it, and is moved
+ * back to where it did.
+ *
+ * @author Jonathan So
+ */
+public class SweptAABBTest {
+
+    private final float EPSILON = 1e-5f;
+    private final int SIZE = 64; // Enemy width and height.
+
+    @Test
+    public void timeOfImpactIsWhenTheEdgesMeet() {
+        Rectangle wall = new Rectangle(50, 0, 4, 10);
+        // Right edge goes from 10 to 110, reaching the wall's left edge at 50.
+        assertEquals(0.4f, SweptAABB.timeOfImpact(0, 0, 10, 10, 100, 0, wall), EPSILON);
+        // Moving left, the left edge goes from 100 to 0, reaching the wall's right edge at 54.
+        assertEquals(0.46f, SweptAABB.timeOfImpact(100, 0, 10, 10, -100, 0, wall), EPSILON);
+        // Diagonally, the later of the two axes to start overlapping.
+        assertEquals(0.4f, SweptAABB.timeOfImpact(0, -30, 10, 10, 100, 50, wall), EPSILON);
+    }
+
+    @Test
+    public void overlappingAtTheStartIsZero() {
+        Rectangle wall = new Rectangle(50, 0, 4, 10);
+        assertEquals(0, SweptAABB.timeOfImpact(45, 0, 10, 10, 100, 0, wall), 0);
+        assertEquals(0, SweptAABB.timeOfImpact(45, 0, 10, 10, 0, 0, wall), 0);
+    }
+
+    @Test
+    public void missesAreNoHit() {
+        Rectangle wall = new Rectangle(50, 0, 4, 10);
+        // Passes above it.
+        assertEquals(SweptAABB.NO_HIT, SweptAABB.timeOfImpact(0, 20, 10, 10, 100, 0, wall), 0);
+        // Stops short of it.
+        assertEquals(SweptAABB.NO_HIT, SweptAABB.timeOfImpact(0, 0, 10, 10, 30, 0, wall), 0);
+        // Only touches it at the end, which Rectangle.overlaps wouldn't count either.
+        assertEquals(SweptAABB.NO_HIT, SweptAABB.timeOfImpact(0, 0, 10, 10, 40, 0, wall), 0);
+        // Moving away from it.
+        assertEquals(SweptAABB.NO_HIT, SweptAABB.timeOfImpact(60, 0, 10, 10, 100, 0, wall), 0);
+    }
+
+    @Test
+    public void fastEnemyDoesNotTunnelThroughThinHitbox() {
+        GameEventQueue events = new GameEventQueue(8);
+        EnemyStore enemies = new EnemyStore(SIZE, SIZE, 1, events);
+        int i = enemies.add(0, 0, 1);
+        Hitbox attack = new Hitbox(120, 0, 2, SIZE, CollisionLayers.PLAYER_ATTACK);
+        // A whole second in one tick: 200 px, from x 0 to 200, past the hitbox at 120.
+        enemies.move(1);
+        assertEquals(200, enemies.getX(i));
+        Rectangle end = new Rectangle(enemies.getX(i), enemies.getY(i), SIZE, SIZE);
+        assertFalse("only checking where it ended up would miss", end.overlaps(attack.getRect()));
+
+        float toi = enemies.timeOfImpact(i, attack);
+        assertEquals((120f - SIZE) / 200, toi, EPSILON);
+        enemies.checkCollision(i, attack, events);
+        assertTrue(enemies.isFalling(i));
+        assertEquals("moved back to the point of impact", (int) (200 * toi), enemies.getX(i));
+        assertTrue(events.next());
+        assertEquals(GameEventQueue.SCORE, events.getType());
+    }
+
+    @Test
+    public void hitboxOnAnotherLayerIsIgnored() {
+        EnemyStore enemies = new EnemyStore(SIZE, SIZE, 1, new GameEventQueue(8));
+        int i = enemies.add(0, 0, 1);
+        enemies.move(1);
+        Hitbox other = new Hitbox(120, 0, 2, SIZE, CollisionLayers.ENEMY);
+        assertEquals(SweptAABB.NO_HIT, enemies.timeOfImpact(i, other), 0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.jonso.ffighter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import org.junit.Test;
+
+/**
+ * Checks a WorldSnapshot puts a world back exactly: capture, play on,
+ * restore, and the same input from there reaches the same checksum as
+ * the first time. Covers the wave script's place in its file, including
+ * after it has finished and closed, and restoring a snapshot from before
+ * horde mode, which has to take the horde director back off the queue.
+ *
+ * @author Jonathan So
+ */
+public class WorldSnapshotTest {
+
+    private final float TICK = 1 / 60f;
+    private final int SECOND = 60; // Ticks.
+    private final long SEED = 3;
+
+    @Test
+    public void restoreThenReplayMatches() {
+        GameWorld world = createWorld();
+        WaveScript script = new WaveScript(new FileHandle("waves.txt"));
+        world.getScheduler().addScript(script);
+        run(world, 7 * SECOND); // Partway through the script.
+        WorldSnapshot snapshot = new WorldSnapshot(world.getSaveSize());
+        snapshot.capture(world);
+        long checksum = world.getChecksum();
+        int line = script.getLine();
+
+        run(world, 5 * SECOND);
+        long later = world.getChecksum();
+        int score = world.getScore();
+        assertNotEquals("the world moved on", checksum, later);
+
+        snapshot.restore(world);
+        assertEquals(snapshot.getTick(), world.getTickCount());
+        assertEquals(checksum, world.getChecksum());
+        assertEquals(line, script.getLine());
+        run(world, 5 * SECOND);
+        assertEquals(later, world.getChecksum());
+        assertEquals(score, world.getScore());
+    }
+
+    @Test
+    public void restoreReopensAFinishedScript() {
+        GameWorld world = createWorld();
+        WaveScript script = new WaveScript(new FileHandle("waves.txt"));
+        world.getScheduler().addScript(script);
+        run(world, 7 * SECOND);
+        WorldSnapshot snapshot = new WorldSnapshot(world.getSaveSize());
+        snapshot.capture(world);
+        int line = script.getLine();
+
+        run(world, 30 * SECOND); // Past its last wave.
+        long later = world.getChecksum();
+        assertFalse(world.getScheduler().isScripted());
+
+        snapshot.restore(world);
+        assertTrue(world.getScheduler().isScripted());
+        assertEquals(line, script.getLine());
+        run(world, 30 * SECOND);
+        assertEquals(later, world.getChecksum());
+    }
+
+    @Test
+    public void restoreFromBeforeHordeModeCancelsIt() {
+        GameWorld world = createWorld();
+        run(world, 2 * SECOND);
+        WorldSnapshot snapshot = new WorldSnapshot(world.getSaveSize());
+        snapshot.capture(world);
+        int pending = world.getScheduler().getPending();
+
+        world.startHorde(HordeCurve.parse(HordeCurve.DEFAULT));
+        run(world, 3 * SECOND);
+        assertNotNull(world.getHorde());
+
+        snapshot.restore(world);
+        assertNull(world.getHorde());
+        assertEquals("only the endless spawners are queued", pending, world.getScheduler().getPending());
+        // From here it plays out as a world that never started horde mode.
+        GameWorld plain = createWorld();
+        run(plain, 2 * SECOND);
+        run(plain, 10 * SECOND);
+        run(world, 10 * SECOND);
+        assertEquals(plain.getChecksum(), world.getChecksum());
+    }
+
+    /** A world with the game's attacks, pressing one every few ticks. */
+    private GameWorld createWorld() {
+        AttackTable attacks = AttackTable.load(new FileHandle(Assets.ATTACKS));
+        GameWorld world = new GameWorld(null, 64, 128, 64, 64, attacks, SEED);
+        // Input only depends on the tick, so it plays out the same after a restore.
+        world.setInput(new InputSource() {
+            @Override
+            public int poll(GameWorld world) {
+                long tick = world.getTickCount();
+                if (tick % 9 != 0) { return AttackTable.NONE; }
+                return (int) ((tick / 9) % world.getPlayer().getAttacks().size());
+            }
+        });
+        return world;
+    }
+
+    private void run(GameWorld world, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            world.tick(TICK);
+        }
+    }
+}
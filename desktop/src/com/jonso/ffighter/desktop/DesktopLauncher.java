@@ -3,13 +3,57 @@ package com.jonso.ffighter.desktop;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.jonso.ffighter.FFighter;
+import com.jonso.ffighter.HordeCurve;
+import com.jonso.ffighter.TelemetryRing;
+
+import java.io.File;
+import java.io.IOException;
 
 public class DesktopLauncher {
-	public static void main (String[] arg) {
+	private static final int TELEMETRY_CAPACITY = 16384; // Records the game may log before the writer catches up.
+
+	public static void main (String[] arg) throws IOException {
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		config.title = "Forward Fighter in libGDX";
 		config.width = 1024;
 		config.height = 512;
-		new LwjglApplication(new FFighter(), config);
+		FFighter game = new FFighter();
+		for (int i = 0; i < arg.length; i++) {
+			if (arg[i].equals("--debug")) {
+				game.debug = true;
+			} else if (arg[i].equals("--record") && i + 1 < arg.length) {
+				game.recordFile = arg[++i];
+			} else if (arg[i].equals("--replay") && i + 1 < arg.length) {
+				game.replayFile = arg[++i];
+			} else if (arg[i].equals("--waves") && i + 1 < arg.length) {
+				game.wavesFile = arg[++i];
+			} else if (arg[i].equals("--horde")) {
+				// Optionally followed by a curve; see HordeCurve.
+				boolean curveGiven = i + 1 < arg.length && !arg[i + 1].startsWith("--");
+				game.hordeCurve = curveGiven ? arg[++i] : HordeCurve.DEFAULT;
+			} else if (arg[i].equals("--threads") && i + 1 < arg.length) {
+				// Update enemies on a worker pool; 0 means one thread per core.
+				int threads = Integer.parseInt(arg[++i]);
+				game.chunkRunner = new ForkJoinChunkRunner(threads > 0 ? threads
+						: Runtime.getRuntime().availableProcessors());
+			} else if (arg[i].equals("--telemetry") && i + 1 < arg.length) {
+				// Log session metrics to a file on a background thread; read it with TelemetryReader.
+				game.telemetry = new TelemetryRing(TELEMETRY_CAPACITY);
+				game.telemetryWriter = new TelemetryWriter(game.telemetry, new File(arg[++i]));
+			} else if (arg[i].equals("--input-buffer") && i + 1 < arg.length) {
+				// How long an early attack press is kept, in milliseconds.
+				game.inputBuffer = Integer.parseInt(arg[++i]) / 1000f;
+			} else if (arg[i].equals("--tick-rate") && i + 1 < arg.length) {
+				// Game logic updates per second.
+				game.tickRate = Integer.parseInt(arg[++i]);
+			} else if (arg[i].equals("--max-ticks") && i + 1 < arg.length) {
+				// Most updates one frame may run before the backlog is dropped.
+				game.maxTicksPerFrame = Integer.parseInt(arg[++i]);
+			} else if (arg[i].equals("--offscreen-interval") && i + 1 < arg.length) {
+				// Move enemies outside the view only every N ticks.
+				game.offscreenInterval = Integer.parseInt(arg[++i]);
+			}
+		}
+		new LwjglApplication(game, config);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.jonso.ffighter.desktop;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.jonso.ffighter.ChunkRunner;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs chunks of GameWorld work on a fork-join pool, one pool task per
+ * chunk. The calling thread joins in and waits until every chunk is
+ * done. A single chunk runs straight on the calling thread, so small
+ * worlds pay nothing.
+ *
+ * The tasks are kept and reinitialized between runs rather than
+ * allocated each time (run() is called twice a tick), so once they've
+ * grown to fit the most chunks, running allocates nothing. That also
+ * means one world at a time: don't call run() from several threads at once.
+ *
+ * @author Jonathan So
+ */
+public class ForkJoinChunkRunner implements ChunkRunner, Disposable {
+
+    private ForkJoinPool pool;
+    private Root root; // Forks the chunks from inside the pool.
+    private ChunkAction[] actions; // One per chunk; grown to the most chunks run.
+
+    /**
+     * Constructor for the runner.
+     * @param threads How many worker threads; usually the number of cores.
+     */
+    public ForkJoinChunkRunner(int threads) {
+        pool = new ForkJoinPool(threads);
+        root = new Root();
+        actions = new ChunkAction[0];
+    }
+
+    @Override
+    public void run(int chunks, Task task) {
+        if (chunks == 1) {
+            task.run(0);
+        } else if (chunks > 1) {
+            if (chunks > actions.length) { grow(chunks); }
+            root.reinitialize();
+            root.task = task;
+            root.chunks = chunks;
+            pool.invoke(root);
+            root.task = null; // Don't hold on to the world.
+        }
+    }
+
+    /** Stop the worker threads. */
+    @Override
+    public void dispose() {
+        pool.shutdown();
+    }
+
+    /** Make room for more chunk tasks, keeping the ones we have. */
+    private void grow(int chunks) {
+        ChunkAction[] grown = new ChunkAction[chunks];
+        System.arraycopy(actions, 0, grown, 0, actions.length);
+        for (int c = actions.length; c < chunks; c++) {
+            grown[c] = new ChunkAction(c);
+        }
+        actions = grown;
+    }
+
+    /** GETTERS */
+    public int getThreads() { return pool.getParallelism(); }
+
+    /** Forks every chunk but the first, runs that one itself, then joins the rest. */
+    private class Root extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private Task task;
+        private int chunks;
+
+        @Override
+        protected void compute() {
+            // Fork the last first, so joining from chunk 1 up takes back any not yet stolen.
+            for (int c = chunks - 1; c > 0; c--) {
+                ChunkAction action = actions[c];
+                action.reinitialize();
+                action.task = task;
+                action.fork();
+            }
+            task.run(0);
+            for (int c = 1; c < chunks; c++) {
+                actions[c].join();
+                actions[c].task = null;
+            }
+        }
+    }
+
+    /** Runs one chunk of a task. */
+    private static class ChunkAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int chunk;
+        private Task task; // Set before each fork.
+
+        ChunkAction(int chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            task.run(chunk);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.jonso.ffighter.desktop;
+
+import com.jonso.ffighter.AttackTable;
+import com.jonso.ffighter.ChunkRunner;
+import com.jonso.ffighter.EnemyStore;
+import com.jonso.ffighter.GameWorld;
+import com.jonso.ffighter.InputSource;
+import com.jonso.ffighter.headless.WorldFactory;
+
+import java.util.Random;
+
+/**
+ * Measures how the GameWorld's tick rate scales with worker threads.
+ * The same seeded horde is simulated once sequentially and once per
+ * thread count (1, 2, 4, ... up to the number of cores); every run must
+ * end on the same checksum as the sequential one, or the benchmark fails.
+ * Runs from the assets folder, like the game (gradlew desktop:benchmark).
+ *
+ * The horde defaults to GameWorld.MAX_ENEMIES; a bigger --enemies
+ * raises the benchmark worlds' enemy cap to match.
+ *
+ * Usage: ParallelBenchmark [--enemies N] [--ticks N] [--seed N]
+ *
+ * @author Jonathan So
+ */
+public class ParallelBenchmark {
+
+    private static final float TICK_TIME = 1f / 60;
+    private static final int WARMUP_TICKS = 120; // Untimed ticks before each run, for the JIT.
+
+    public static void main(String[] args) {
+        int enemyCount = GameWorld.MAX_ENEMIES;
+        int ticks = 600;
+        long seed = 1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--enemies")) {
+                enemyCount = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--ticks")) {
+                ticks = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println(enemyCount + " enemies, " + ticks + " ticks, " + cores + " cores");
+
+        WorldFactory worlds = new WorldFactory();
+        double baseline = run(worlds, ChunkRunner.SEQUENTIAL, enemyCount, ticks, seed);
+        long expected = lastChecksum;
+        System.out.println(String.format("sequential  %9.0f ticks/s", baseline));
+        for (int threads = 1; threads <= cores; threads = WorldFactory.nextThreads(threads, cores)) {
+            ForkJoinChunkRunner runner = new ForkJoinChunkRunner(threads);
+            double rate = run(worlds, runner, enemyCount, ticks, seed);
+            runner.dispose();
+            boolean same = lastChecksum == expected;
+            System.out.println(String.format("%2d threads  %9.0f ticks/s  %5.2fx  %s", threads, rate,
+                    rate / baseline, same ? "same result" : "DIFFERENT RESULT"));
+            if (!same) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static long lastChecksum; // Checksum the last run() ended on.
+
+    /**
+     * Simulate a horde, topped up to enemyCount every tick, and time it.
+     * @return Ticks per second.
+     */
+    private static double run(WorldFactory worlds, ChunkRunner runner, int enemyCount, int ticks, long seed) {
+        GameWorld world = createWorld(worlds, seed);
+        world.setChunkRunner(runner);
+        world.reserveEnemies(enemyCount * 2);
+        world.getLifecycle().setCap(Math.max(enemyCount, GameWorld.MAX_ENEMIES));
+        Random placement = new Random(seed);
+        for (int t = 0; t < WARMUP_TICKS; t++) {
+            step(world, enemyCount, placement);
+        }
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            step(world, enemyCount, placement);
+        }
+        long elapsed = System.nanoTime() - start;
+        lastChecksum = world.getChecksum();
+        return ticks / (elapsed / 1e9);
+    }
+
+    /** Top the horde back up, scattered across the lanes, then tick. */
+    private static void step(GameWorld world, int enemyCount, Random placement) {
+        EnemyStore enemies = world.getEnemies();
+        while (enemies.size() < enemyCount) {
+            int lane = placement.nextInt(GameWorld.LANES);
+            int slot = world.addEnemy(placement.nextInt(GameWorld.WIDTH) - GameWorld.WIDTH / 2,
+                    GameWorld.HEIGHT / 3 + (lane * enemies.getHeight()));
+            if (slot < 0) {
+                throw new IllegalStateException("Enemy cap of " + world.getLifecycle().getCap()
+                        + " reached topping up to " + enemyCount + " enemies");
+            }
+        }
+        world.tick(TICK_TIME);
+    }
+
+    /** A world from the factory, attacking every few ticks; also used by SnapshotBenchmark. */
+    static GameWorld createWorld(WorldFactory worlds, long seed) {
+        final AttackTable attacks = worlds.getAttacks();
+        GameWorld world = worlds.create(seed);
+        world.setInput(new InputSource() {
+            @Override
+            public int poll(GameWorld world) {
+                long tick = world.getTickCount();
+                return tick % 10 == 0 ? (int) ((tick / 10) % attacks.size()) : AttackTable.NONE;
+            }
+        });
+        return world;
+    }
+}
@@ -0,0 +1,85 @@
+package com.jonso.ffighter.desktop;
+
+import com.jonso.ffighter.GameWorld;
+import com.jonso.ffighter.WorldSnapshot;
+import com.jonso.ffighter.headless.WorldFactory;
+
+import java.util.Random;
+
+/**
+ * Measures what WorldSnapshot capture and restore cost with 100, 1000
+ * and 10000 enemies, and checks a rollback is exact: after restoring,
+ * the world must replay the same ticks to the same checksum as it did
+ * before, or the benchmark fails.
+ * Runs from the assets folder, like the game (gradlew desktop:snapshotBenchmark).
+ *
+ * Usage: SnapshotBenchmark [--iterations N] [--seed N]
+ *
+ * @author Jonathan So
+ */
+public class SnapshotBenchmark {
+
+    private static final float TICK_TIME = 1f / 60;
+    private static final int[] ENEMY_COUNTS = { 100, 1000, 10000 };
+    private static final int ROLLBACK_TICKS = 120; // Ticks replayed after restoring.
+
+    public static void main(String[] args) {
+        int iterations = 10000;
+        long seed = 1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--iterations")) {
+                iterations = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[i + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        WorldFactory worlds = new WorldFactory();
+        System.out.println("enemies    bytes   capture us   restore us   rollback");
+        for (int enemyCount : ENEMY_COUNTS) {
+            GameWorld world = ParallelBenchmark.createWorld(worlds, seed);
+            world.reserveEnemies(enemyCount * 2);
+            Random placement = new Random(seed);
+            for (int n = 0; n < enemyCount; n++) {
+                int lane = placement.nextInt(GameWorld.LANES);
+                world.addEnemy(placement.nextInt(GameWorld.WIDTH * 2) - GameWorld.WIDTH / 2,
+                        GameWorld.HEIGHT / 3 + (lane * world.getEnemies().getHeight()));
+            }
+            world.tick(TICK_TIME);
+            WorldSnapshot snapshot = new WorldSnapshot(world.getSaveSize());
+
+            // Warm up, then time each half on its own.
+            for (int n = 0; n < iterations; n++) {
+                snapshot.capture(world);
+                snapshot.restore(world);
+            }
+            long start = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                snapshot.capture(world);
+            }
+            double capture = (System.nanoTime() - start) / 1e3 / iterations;
+            start = System.nanoTime();
+            for (int n = 0; n < iterations; n++) {
+                snapshot.restore(world);
+            }
+            double restore = (System.nanoTime() - start) / 1e3 / iterations;
+
+            // Play on, roll back, and play the same ticks again.
+            snapshot.capture(world);
+            long before = world.getChecksum();
+            for (int t = 0; t < ROLLBACK_TICKS; t++) { world.tick(TICK_TIME); }
+            long expected = world.getChecksum();
+            snapshot.restore(world);
+            boolean same = world.getChecksum() == before;
+            for (int t = 0; t < ROLLBACK_TICKS; t++) { world.tick(TICK_TIME); }
+            same &= world.getChecksum() == expected;
+
+            System.out.println(String.format("%7d %8d %12.2f %12.2f   %s", enemyCount, snapshot.getSize(),
+                    capture, restore, same ? "exact" : "DIFFERENT RESULT"));
+            if (!same) {
+                System.exit(1);
+            }
+        }
+    }
+}
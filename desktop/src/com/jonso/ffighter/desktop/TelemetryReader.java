@@ -0,0 +1,168 @@
+package com.jonso.ffighter.desktop;
+
+import com.jonso.ffighter.TelemetryRing;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a telemetry file written by TelemetryWriter one record at a
+ * time: call next(), then read the record with getType(), getTick(),
+ * getA() and getB(). Chunks are inflated as they're reached.
+ *
+ * Run as a program to summarise a file, or with --csv to print every
+ * record:
+ *
+ * Usage: TelemetryReader FILE [--csv]
+ *
+ * @author Jonathan So
+ */
+public class TelemetryReader implements Closeable {
+
+    private DataInputStream in;
+    private Inflater inflater;
+    private int recordInts; // Ints per record, from the header.
+
+    // CURRENT CHUNK
+    private byte[] compressed = new byte[0];
+    private byte[] raw = new byte[0];
+    private int count; // Records in the chunk.
+    private int read; // Records read from it so far.
+
+    // THE RECORD LAST READ WITH next()
+    private int type, tick, a, b;
+
+    /**
+     * Open a telemetry file and check its header.
+     * @param file The file.
+     * @throws IOException If it can't be read or isn't a telemetry file.
+     */
+    public TelemetryReader(File file) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        for (byte m : TelemetryWriter.MAGIC) {
+            if (in.readByte() != m) { throw new IOException("Not a telemetry file: " + file); }
+        }
+        int version = in.readByte();
+        if (version != TelemetryWriter.VERSION) {
+            throw new IOException("Unsupported telemetry version " + version + ": " + file);
+        }
+        recordInts = in.readByte();
+        inflater = new Inflater();
+    }
+
+    /**
+     * Read the next record.
+     * @return False at the end of the file.
+     * @throws IOException If the file is cut short or corrupt.
+     */
+    public boolean next() throws IOException {
+        if (read == count && !nextChunk()) { return false; }
+        int i = read * recordInts * 4;
+        type = getInt(i);
+        tick = getInt(i + 4);
+        a = getInt(i + 8);
+        b = getInt(i + 12);
+        read++;
+        return true;
+    }
+
+    /** Inflate the next chunk; false at the end of the file. */
+    private boolean nextChunk() throws IOException {
+        try {
+            count = in.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        int size = in.readInt();
+        if (compressed.length < size) { compressed = new byte[size]; }
+        in.readFully(compressed, 0, size);
+        int length = count * recordInts * 4;
+        if (raw.length < length) { raw = new byte[length]; }
+        inflater.reset();
+        inflater.setInput(compressed, 0, size);
+        try {
+            if (inflater.inflate(raw, 0, length) != length) { throw new IOException("Short telemetry chunk"); }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt telemetry chunk", e);
+        }
+        read = 0;
+        return count > 0 || nextChunk();
+    }
+
+    private int getInt(int i) {
+        return (raw[i] << 24) | ((raw[i + 1] & 0xFF) << 16) | ((raw[i + 2] & 0xFF) << 8) | (raw[i + 3] & 0xFF);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+        inflater.end();
+    }
+
+    /** GETTERS */
+    public int getType() { return type; }
+    public int getTick() { return tick; }
+    public int getA() { return a; }
+    public int getB() { return b; }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TelemetryReader FILE [--csv]");
+            System.exit(2);
+        }
+        boolean csv = args.length > 1 && args[1].equals("--csv");
+        TelemetryReader reader = new TelemetryReader(new File(args[0]));
+        long[] counts = new long[TelemetryRing.TYPE_COUNT];
+        long[] attacks = new long[16];
+        long frameMicros = 0, maxFrameMicros = 0;
+        long unknown = 0; // Records of a type we don't know, from a corrupt or newer log.
+        int lastTick = 0;
+        if (csv) { System.out.println("type,tick,a,b"); }
+        try {
+            while (reader.next()) {
+                int type = reader.getType();
+                boolean known = type >= 0 && type < TelemetryRing.TYPE_COUNT;
+                if (csv) {
+                    System.out.println(TelemetryRing.getName(type) + "," + reader.getTick() + ","
+                            + reader.getA() + "," + reader.getB());
+                }
+                if (!known) {
+                    unknown++;
+                    continue;
+                }
+                counts[type]++;
+                lastTick = Math.max(lastTick, reader.getTick());
+                if (type == TelemetryRing.FRAME) {
+                    frameMicros += reader.getA();
+                    maxFrameMicros = Math.max(maxFrameMicros, reader.getA());
+                } else if (type == TelemetryRing.ATTACK && reader.getA() >= 0 && reader.getA() < attacks.length) {
+                    attacks[reader.getA()]++;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        if (csv) { return; }
+        System.out.println("Ticks:    " + lastTick);
+        for (int t = 0; t < TelemetryRing.TYPE_COUNT; t++) {
+            System.out.println(TelemetryRing.getName(t) + ": " + counts[t]);
+        }
+        if (unknown > 0) { System.out.println("unknown types: " + unknown); }
+        System.out.print("Attacks by id:");
+        for (int id = 0; id < attacks.length; id++) {
+            if (attacks[id] > 0) { System.out.print(" " + id + "=" + attacks[id]); }
+        }
+        System.out.println();
+        if (counts[TelemetryRing.FRAME] > 0) {
+            System.out.println("Frame time: avg " + (frameMicros / counts[TelemetryRing.FRAME]) + " us, max "
+                    + maxFrameMicros + " us");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.jonso.ffighter.desktop;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.jonso.ffighter.TelemetryRing;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+/**
+ * Drains a TelemetryRing on a background thread and writes it to a file
+ * in deflated chunks, so the game thread only ever copies ints into the
+ * ring. The thread wakes every POLL_MS; once BATCH records are waiting,
+ * or FLUSH_MS has passed, it writes everything waiting.
+ *
+ * The file is a header (magic "FFTL", version, ints per record), then
+ * chunks of: record count, compressed length, and the records as
+ * big-endian ints, deflated. Read it back with TelemetryReader.
+ *
+ * @author Jonathan So
+ */
+public class TelemetryWriter implements Runnable, Disposable {
+
+    static final byte[] MAGIC = { 'F', 'F', 'T', 'L' };
+    static final int VERSION = 1;
+
+    private static final int BATCH = 4096; // Most records per chunk.
+    private static final long POLL_MS = 50; // How often to check the ring.
+    private static final long FLUSH_MS = 1000; // Longest a record waits before being written.
+
+    private final TelemetryRing ring;
+    private final DataOutputStream out;
+    private final Deflater deflater;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // BUFFERS, reused for every chunk; only touched by the writing thread.
+    private final int[] batch;
+    private final byte[] raw;
+    private byte[] compressed;
+
+    // STATISTICS
+    private long chunks; // Chunks written.
+    private long written; // Records written.
+    private long compressedBytes; // Bytes of chunk data written.
+
+    /**
+     * Create the file, write its header and start the writer thread.
+     * @param ring The ring to drain; nothing else may drain it.
+     * @param file Where to write; overwritten.
+     * @throws IOException If the file can't be created.
+     */
+    public TelemetryWriter(TelemetryRing ring, File file) throws IOException {
+        this.ring = ring;
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(TelemetryRing.RECORD_INTS);
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        batch = new int[BATCH * TelemetryRing.RECORD_INTS];
+        raw = new byte[batch.length * 4];
+        compressed = new byte[raw.length];
+        thread = new Thread(this, "telemetry-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        long lastFlush = System.currentTimeMillis();
+        try {
+            while (running) {
+                Thread.sleep(POLL_MS);
+                long now = System.currentTimeMillis();
+                if (ring.size() >= BATCH || (now - lastFlush >= FLUSH_MS && ring.size() > 0)) {
+                    flush();
+                    lastFlush = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Disposed; the last records are flushed by dispose().
+        } catch (IOException e) {
+            System.err.println("Telemetry stopped: " + e);
+            running = false;
+        }
+    }
+
+    /** Write every waiting record, in chunks of up to BATCH. */
+    private void flush() throws IOException {
+        int count;
+        while ((count = ring.drain(batch)) > 0) {
+            writeChunk(count);
+        }
+        out.flush();
+    }
+
+    /** Deflate and write count records from the batch. */
+    private void writeChunk(int count) throws IOException {
+        int length = count * TelemetryRing.RECORD_INTS * 4;
+        for (int i = 0, b = 0; b < length; i++) {
+            int v = batch[i];
+            raw[b++] = (byte) (v >>> 24);
+            raw[b++] = (byte) (v >>> 16);
+            raw[b++] = (byte) (v >>> 8);
+            raw[b++] = (byte) v;
+        }
+        deflater.reset();
+        deflater.setInput(raw, 0, length);
+        deflater.finish();
+        int size = 0;
+        while (!deflater.finished()) {
+            if (size == compressed.length) { // Didn't compress; rare, so just grow.
+                byte[] grown = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, grown, 0, size);
+                compressed = grown;
+            }
+            size += deflater.deflate(compressed, size, compressed.length - size);
+        }
+        out.writeInt(count);
+        out.writeInt(size);
+        out.write(compressed, 0, size);
+        chunks++;
+        written += count;
+        compressedBytes += size;
+    }
+
+    /** Stop the thread, write whatever is left and close the file. */
+    @Override
+    public void dispose() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+            flush(); // The thread is gone, so this is now the only consumer.
+            out.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Telemetry not fully written: " + e);
+        }
+        deflater.end();
+    }
+
+    /** GETTERS */
+    public long getChunks() { return chunks; }
+    public long getWritten() { return written; }
+    public long getCompressedBytes() { return compressedBytes; }
+}
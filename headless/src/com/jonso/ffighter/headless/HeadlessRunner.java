@@ -0,0 +1,227 @@
+package com.jonso.ffighter.headless;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.jonso.ffighter.EnemyLifecycle;
+import com.jonso.ffighter.FrameBudgetMonitor;
+import com.jonso.ffighter.FrameProfiler;
+import com.jonso.ffighter.GameWorld;
+import com.jonso.ffighter.HordeCurve;
+import com.jonso.ffighter.Replay;
+import com.jonso.ffighter.ReplayPlayer;
+import com.jonso.ffighter.ReplayRecorder;
+import com.jonso.ffighter.WaveScript;
+
+/**
+ * Runs the game logic without a window or GL context, as fast as
+ * the CPU allows, for soak and throughput testing (e.g. on a CI box
+ * with no GPU). The world comes from a WorldFactory, which reads entity
+ * sizes from the sprite atlas and attacks from attacks.json in the
+ * working directory (which the Gradle run task sets to the assets folder).
+ *
+ * With --profile, every tick is timed by a FrameProfiler: each phase's
+ * p50 and p99 are printed, and the last FrameProfiler.CAPACITY ticks
+ * are written to the given CSV file.
+ *
+ * With --record, the run is saved as a Replay. With --replay, a saved
+ * Replay (from here or the desktop game) is played back instead: its
+ * seed, tick rate, length, horde curve, wave script and off-screen
+ * interval override the other options, so it's a fixed
+ * workload for comparing builds, and the run fails if the world ever
+ * differs from the recording.
+ *
+ * With --waves, a wave script plays on top of the endless spawners; a
+ * replay names the script it was recorded with, which must be unchanged.
+ *
+ * With --horde, the world runs in horde mode along the given HordeCurve
+ * ("default" for HordeCurve.DEFAULT), and the enemy counts at which the
+ * simulation alone took longer than the 60 and 30 fps frame budgets
+ * per tick are printed.
+ *
+ * With --offscreen-interval N, enemies outside the screen's area are
+ * only moved every N ticks, as on desktop.
+ *
+ * Usage: HeadlessRunner [--minutes N] [--tick-rate HZ] [--seed N] [--press-interval TICKS]
+ *                       [--profile FILE] [--record FILE | --replay FILE] [--waves FILE]
+ *                       [--horde CURVE] [--offscreen-interval N]
+ *
+ * @author Jonathan So
+ */
+public class HeadlessRunner {
+
+    private static final int SAMPLE_INTERVAL = 600; // Ticks between heap samples.
+
+    public static void main(String[] args) {
+        float minutes = 10;
+        int tickRate = 60;
+        long seed = 1;
+        int pressInterval = 20;
+        String profileFile = null;
+        String recordFile = null;
+        String replayFile = null;
+        String wavesFile = null;
+        String hordeCurve = null;
+        int offscreenInterval = 1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--minutes")) {
+                minutes = Float.parseFloat(args[i + 1]);
+            } else if (args[i].equals("--tick-rate")) {
+                tickRate = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[i + 1]);
+            } else if (args[i].equals("--press-interval")) {
+                pressInterval = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--profile")) {
+                profileFile = args[i + 1];
+            } else if (args[i].equals("--record")) {
+                recordFile = args[i + 1];
+            } else if (args[i].equals("--replay")) {
+                replayFile = args[i + 1];
+            } else if (args[i].equals("--waves")) {
+                wavesFile = args[i + 1];
+            } else if (args[i].equals("--offscreen-interval")) {
+                offscreenInterval = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--horde")) {
+                hordeCurve = args[i + 1].equals("default") ? HordeCurve.DEFAULT : args[i + 1];
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Replay replay = null;
+        if (replayFile != null) {
+            replay = Replay.read(new FileHandle(replayFile));
+            if (!replay.hasEnd()) {
+                throw new IllegalStateException(replayFile + " was cut short; it has no end to run to");
+            }
+            seed = replay.getSeed();
+            tickRate = replay.getTickRate();
+            minutes = replay.getEndTick() / (60f * tickRate);
+            if (replay.hasSettings()) {
+                // Play back as recorded, whatever the command line says.
+                hordeCurve = replay.getHordeCurve();
+                wavesFile = replay.getWavesFile();
+                offscreenInterval = replay.getOffscreenInterval();
+            }
+        }
+        GameWorld world = new WorldFactory().create(seed);
+        if (wavesFile != null) {
+            world.getScheduler().addScript(new WaveScript(new FileHandle(wavesFile)));
+        }
+        if (offscreenInterval > 1) {
+            // No camera here; the screen shows the whole world at its default position.
+            world.getEnemies().setActiveRegion(0, 0, GameWorld.WIDTH, GameWorld.HEIGHT, offscreenInterval);
+        }
+        FrameBudgetMonitor budgets = null;
+        if (hordeCurve != null) {
+            world.startHorde(HordeCurve.parse(hordeCurve));
+            budgets = new FrameBudgetMonitor();
+        }
+        ReplayPlayer player = null;
+        ReplayRecorder recorder = null;
+        if (replay != null) {
+            player = new ReplayPlayer(replay);
+            world.setInput(player);
+        } else {
+            world.setInput(new ScriptedInput(seed, pressInterval));
+            if (recordFile != null) {
+                recorder = new ReplayRecorder(world.getInput(), world, tickRate);
+                recorder.getReplay().setSettings(hordeCurve, wavesFile, offscreenInterval);
+                world.setInput(recorder);
+            }
+        }
+        FrameProfiler profiler = null;
+        if (profileFile != null) {
+            profiler = new FrameProfiler(true);
+            world.setProfiler(profiler);
+        }
+
+        long totalTicks = replay != null ? replay.getEndTick() : (long) (minutes * 60 * tickRate);
+        float tickTime = 1f / tickRate;
+        Runtime runtime = Runtime.getRuntime();
+        int peakEntities = 0;
+        long peakHeap = 0;
+        long offscreenSkips = 0; // Enemy moves skipped outside the screen.
+
+        long start = System.nanoTime();
+        long tickStart = start;
+        for (long tick = 0; tick < totalTicks; tick++) {
+            world.tick(tickTime);
+            if (budgets != null) {
+                long now = System.nanoTime();
+                budgets.update((now - tickStart) / 1e9f, world.getEnemies().size());
+                tickStart = now;
+            }
+            if (profiler != null) {
+                profiler.endFrame(world.getEntityCount(), world.getHitboxCount(), 0);
+            }
+            peakEntities = Math.max(peakEntities, world.getEntityCount());
+            offscreenSkips += world.getEnemies().getOffscreenSkips();
+            if (tick % SAMPLE_INTERVAL == 0) {
+                peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long finalHeap = runtime.totalMemory() - runtime.freeMemory();
+        peakHeap = Math.max(peakHeap, finalHeap);
+
+        double seconds = elapsed / 1e9;
+        System.out.println("Simulated " + minutes + " min (" + totalTicks + " ticks @ "
+                + tickRate + " Hz) in " + String.format("%.3f", seconds) + " s");
+        System.out.println("Ticks/sec:      " + String.format("%.0f", totalTicks / seconds));
+        System.out.println("Peak entities:  " + peakEntities);
+        System.out.println("Heap used:      peak " + toMB(peakHeap) + " MB, final "
+                + toMB(finalHeap) + " MB (max " + toMB(runtime.maxMemory()) + " MB)");
+        System.out.println("Enemy store:    spawned " + world.getEnemies().getSpawned()
+                + ", peak " + world.getEnemies().getPeak()
+                + ", capacity " + world.getEnemies().getCapacity());
+        EnemyLifecycle lifecycle = world.getLifecycle();
+        System.out.println("Lifecycle:      " + lifecycle.getLive() + " live, "
+                + lifecycle.getDespawned(EnemyLifecycle.FELL) + " fell, "
+                + lifecycle.getDespawned(EnemyLifecycle.OUT_OF_BOUNDS) + " out of bounds, "
+                + lifecycle.getRejected() + " over the cap of " + lifecycle.getCap());
+        if (offscreenInterval > 1) {
+            System.out.println("Off-screen:     " + offscreenSkips + " enemy moves skipped");
+        }
+        System.out.println("Scheduler:      " + world.getScheduler().getFired() + " events fired, "
+                + world.getScheduler().getPending() + " pending");
+        System.out.println("Event queue:    peak " + world.getEvents().getPeak() + ", capacity "
+                + world.getEvents().getCapacity() + ", grows " + world.getEvents().getGrows());
+        System.out.println("Score: " + world.getScore() + ", Times Hit: " + world.getHits()
+                + ", Checksum: " + Long.toHexString(world.getChecksum()));
+        if (profiler != null) {
+            System.out.println("Tick phases (last " + profiler.getCount() + " ticks, p50 / p99 us):");
+            for (int p = 0; p < FrameProfiler.PHASE_COUNT; p++) {
+                System.out.println(String.format("  %-8s %8.2f / %8.2f", FrameProfiler.getName(p),
+                        profiler.getPercentile(p, 50) / 1e3, profiler.getPercentile(p, 99) / 1e3));
+            }
+            profiler.exportCsv(new FileHandle(profileFile));
+            System.out.println("Wrote " + profileFile);
+        }
+        if (budgets != null) {
+            System.out.println("Horde:          peak " + budgets.getPeakEnemies() + " enemies; ticks over 16.6 ms "
+                    + describe(budgets.getCrossedAt(0)) + ", over 33.3 ms " + describe(budgets.getCrossedAt(1)));
+        }
+        if (recorder != null) {
+            recorder.finish(world).write(new FileHandle(recordFile));
+            System.out.println("Recorded " + recorder.getReplay().getActionCount() + " actions to " + recordFile);
+        }
+        if (player != null) {
+            if (player.isFinished(world) && player.matches()) {
+                System.out.println("Replay matched the recording");
+            } else {
+                System.out.println("Replay diverged from the recording at tick " + player.getDivergedAt());
+                System.exit(1);
+            }
+        }
+    }
+
+    /** When a budget was crossed, by enemy count. */
+    private static String describe(int enemies) {
+        return enemies < 0 ? "never" : "from " + enemies + " enemies";
+    }
+
+    /** Bytes to whole megabytes. */
+    private static long toMB(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+}
@@ -0,0 +1,37 @@
+package com.jonso.ffighter.headless;
+
+import com.jonso.ffighter.AttackTable;
+import com.jonso.ffighter.GameWorld;
+import com.jonso.ffighter.InputSource;
+
+import java.util.Random;
+
+/**
+ * Stands in for the keyboard when the game runs headless: every
+ * few ticks it queues one of the player's attacks, chosen by a seeded
+ * Random so the same seed always presses the same keys.
+ *
+ * @author Jonathan So
+ */
+public class ScriptedInput implements InputSource {
+
+    private Random random; // Picks which attack to press.
+    private int interval; // Ticks between presses.
+
+    /**
+     * Constructor for the scripted input.
+     * @param seed Seed for choosing attacks.
+     * @param interval How many ticks to wait between presses.
+     */
+    public ScriptedInput(long seed, int interval) {
+        this.random = new Random(seed);
+        this.interval = Math.max(1, interval);
+    }
+
+    /** Press a random attack if this tick is a press tick. */
+    @Override
+    public int poll(GameWorld world) {
+        if (world.getTickCount() % interval != 0) { return AttackTable.NONE; }
+        return random.nextInt(world.getPlayer().getAttacks().size());
+    }
+}
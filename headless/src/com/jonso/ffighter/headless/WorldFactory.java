@@ -0,0 +1,70 @@
+package com.jonso.ffighter.headless;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.jonso.ffighter.AttackTable;
+import com.jonso.ffighter.Assets;
+import com.jonso.ffighter.GameWorld;
+
+/**
+ * Creates GameWorlds without a GL context, for the headless runner, the
+ * match server and the desktop benchmarks. Entity sizes are read from
+ * the sprite atlas (TextureAtlasData only parses the file) and attacks
+ * from attacks.json, once, from the working directory (the assets
+ * folder, as every Gradle run task sets it). Worlds share the read-only
+ * AttackTable, so create() may be called from any thread.
+ *
+ * @author Jonathan So
+ */
+public class WorldFactory {
+
+    private final int playerWidth, playerHeight;
+    private final int enemyWidth, enemyHeight;
+    private final AttackTable attacks;
+
+    /** Constructor for the factory; reads the atlas and the attacks. */
+    public WorldFactory() {
+        TextureAtlasData atlas = new TextureAtlasData(new FileHandle(Assets.ATLAS), new FileHandle("atlas"), false);
+        TextureAtlasData.Region player = findRegion(atlas, Assets.PLAYER);
+        TextureAtlasData.Region enemy = findRegion(atlas, Assets.ENEMY);
+        playerWidth = player.width;
+        playerHeight = player.height;
+        enemyWidth = enemy.width;
+        enemyHeight = enemy.height;
+        attacks = AttackTable.load(new FileHandle(Assets.ATTACKS));
+    }
+
+    /**
+     * Create a world, with no input set.
+     * @param seed Seed for the world's randomness.
+     * @return The world.
+     */
+    public GameWorld create(long seed) {
+        return new GameWorld(null, playerWidth, playerHeight, enemyWidth, enemyHeight, attacks, seed);
+    }
+
+    /**
+     * Step through thread counts for a scaling run: 1, 2, 4, ... and
+     * finally the core count itself, then past it to end the loop.
+     * @param threads The count just run.
+     * @param cores The number of cores.
+     * @return The next count to run.
+     */
+    public static int nextThreads(int threads, int cores) {
+        if (threads == cores) { return cores + 1; }
+        return Math.min(threads * 2, cores);
+    }
+
+    /** Look up a region of the atlas by name. */
+    private static TextureAtlasData.Region findRegion(TextureAtlasData atlas, String name) {
+        for (TextureAtlasData.Region region : atlas.getRegions()) {
+            if (region.name.equals(name)) {
+                return region;
+            }
+        }
+        throw new IllegalStateException("No region named " + name + " in the sprite atlas");
+    }
+
+    /** GETTERS */
+    public AttackTable getAttacks() { return attacks; }
+}
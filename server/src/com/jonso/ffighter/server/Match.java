@@ -0,0 +1,112 @@
+package com.jonso.ffighter.server;
+
+import com.jonso.ffighter.GameWorld;
+import com.jonso.ffighter.HordeCurve;
+import com.jonso.ffighter.headless.ScriptedInput;
+import com.jonso.ffighter.headless.WorldFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * One bot match: a GameWorld of its own, seeded for its spawns, played
+ * by ScriptedInput for a set number of ticks as fast as possible. Each
+ * tick is timed, so the result has the match's tick latency as well as
+ * its outcome. Matches share nothing but the WorldFactory (and the
+ * read-only AttackTable its worlds use), so any number can run at once
+ * on different threads.
+ *
+ * @author Jonathan So
+ */
+public class Match implements Callable<Match.Result> {
+
+    private final int id;
+    private final long seed;
+    private final int pressInterval;
+    private final int ticks;
+    private final float tickTime;
+    private final String hordeCurve; // Null for the normal spawners.
+    private final WorldFactory worlds; // Shared by every match.
+
+    /**
+     * Constructor for a match; nothing runs until call().
+     * @param id Number of the match in its batch.
+     * @param seed Seed for the world and the scripted input.
+     * @param pressInterval Ticks between scripted attacks.
+     * @param ticks How many ticks to play.
+     * @param tickRate Ticks per second.
+     * @param hordeCurve Horde mode curve, or null for the normal spawners.
+     * @param worlds Creates the match's world; shared between matches.
+     */
+    public Match(int id, long seed, int pressInterval, int ticks, int tickRate, String hordeCurve,
+                 WorldFactory worlds) {
+        this.id = id;
+        this.seed = seed;
+        this.pressInterval = pressInterval;
+        this.ticks = ticks;
+        this.tickTime = 1f / tickRate;
+        this.hordeCurve = hordeCurve;
+        this.worlds = worlds;
+    }
+
+    /** Play the match to the end. */
+    @Override
+    public Result call() {
+        GameWorld world = worlds.create(seed);
+        world.setInput(new ScriptedInput(seed, pressInterval));
+        if (hordeCurve != null) {
+            world.startHorde(HordeCurve.parse(hordeCurve));
+        }
+        long[] tickNanos = new long[ticks];
+        long start = System.nanoTime();
+        long last = start;
+        for (int t = 0; t < ticks; t++) {
+            world.tick(tickTime);
+            long now = System.nanoTime();
+            tickNanos[t] = now - last;
+            last = now;
+        }
+        long elapsed = last - start;
+        Arrays.sort(tickNanos);
+        return new Result(id, seed, pressInterval, world.getScore(), world.getHits(), world.getChecksum(),
+                elapsed, percentile(tickNanos, 50), percentile(tickNanos, 99), tickNanos[ticks - 1]);
+    }
+
+    /** GETTERS */
+    public int getId() { return id; }
+    public long getSeed() { return seed; }
+    public int getTicks() { return ticks; }
+
+    private static long percentile(long[] sorted, float percentile) {
+        return sorted[(int) ((sorted.length - 1) * (percentile / 100f))];
+    }
+
+    /**
+     * How a match went: its outcome, the checksum it ended on (the same
+     * for the same settings, whichever thread ran it), and its tick
+     * latency in nanoseconds.
+     */
+    public static class Result {
+        public final int id;
+        public final long seed;
+        public final int pressInterval;
+        public final int score, hits;
+        public final long checksum;
+        public final long elapsed; // Wall time for the whole match.
+        public final long p50, p99, max; // Tick latency.
+
+        Result(int id, long seed, int pressInterval, int score, int hits, long checksum,
+               long elapsed, long p50, long p99, long max) {
+            this.id = id;
+            this.seed = seed;
+            this.pressInterval = pressInterval;
+            this.score = score;
+            this.hits = hits;
+            this.checksum = checksum;
+            this.elapsed = elapsed;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+    }
+}
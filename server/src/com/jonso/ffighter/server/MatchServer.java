@@ -0,0 +1,194 @@
+package com.jonso.ffighter.server;
+
+import com.jonso.ffighter.HordeCurve;
+import com.jonso.ffighter.headless.WorldFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a batch of independent bot matches (see Match) without a window,
+ * on a fixed pool of worker threads, then prints matches/sec, ticks/sec
+ * and per-match tick latency. Match i is seeded with seed + i and
+ * presses every Nth tick, with N cycling through --press-intervals, so
+ * one batch can sweep a balance setting; results are also summarised
+ * per interval.
+ *
+ * With --scaling, the same batch runs with 1, 2, 4... threads up to the
+ * core count, printing the speedup of each; every run must end each
+ * match on the same checksum, or the server exits with an error.
+ * Runs from the assets folder, like the game (gradlew server:run).
+ *
+ * Usage: MatchServer [--matches N] [--threads N (0: one per core)] [--minutes N] [--tick-rate HZ]
+ *                    [--seed N] [--press-intervals N,N,...] [--horde CURVE] [--scaling] [--verbose]
+ *
+ * @author Jonathan So
+ */
+public class MatchServer {
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int matchCount = 64;
+        int threads = 0;
+        float minutes = 1;
+        int tickRate = 60;
+        long seed = 1;
+        int[] pressIntervals = { 20 };
+        String hordeCurve = null;
+        boolean scaling = false;
+        boolean verbose = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--scaling")) {
+                scaling = true;
+                continue;
+            } else if (args[i].equals("--verbose")) {
+                verbose = true;
+                continue;
+            }
+            if (i + 1 >= args.length) { throw new IllegalArgumentException("Missing value for " + args[i]); }
+            if (args[i].equals("--matches")) {
+                matchCount = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--minutes")) {
+                minutes = Float.parseFloat(args[++i]);
+            } else if (args[i].equals("--tick-rate")) {
+                tickRate = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--press-intervals")) {
+                String[] parts = args[++i].split(",");
+                pressIntervals = new int[parts.length];
+                for (int p = 0; p < parts.length; p++) { pressIntervals[p] = Integer.parseInt(parts[p].trim()); }
+            } else if (args[i].equals("--horde")) {
+                hordeCurve = args[++i].equals("default") ? HordeCurve.DEFAULT : args[i];
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (threads <= 0) { threads = cores; }
+        int ticks = (int) (minutes * 60 * tickRate);
+
+        // Every match shares the sizes and the attack table, loaded once.
+        WorldFactory worlds = new WorldFactory();
+
+        List<Match> matches = new ArrayList<Match>(matchCount);
+        for (int i = 0; i < matchCount; i++) {
+            matches.add(new Match(i, seed + i, pressIntervals[i % pressIntervals.length], ticks, tickRate,
+                    hordeCurve, worlds));
+        }
+        System.out.println(matchCount + " matches of " + ticks + " ticks @ " + tickRate + " Hz, " + cores + " cores");
+
+        if (!scaling) {
+            Batch batch = run(matches, threads);
+            if (verbose) { printMatches(batch.results); }
+            printBatch(threads, batch, 0);
+            printSweep(batch.results, pressIntervals);
+            return;
+        }
+        Batch baseline = null;
+        for (int t = 1; t <= cores; t = WorldFactory.nextThreads(t, cores)) {
+            Batch batch = run(matches, t);
+            boolean same = baseline == null || sameChecksums(baseline.results, batch.results);
+            if (baseline == null) { baseline = batch; }
+            printBatch(t, batch, baseline.matchesPerSecond());
+            if (!same) {
+                System.out.println("DIFFERENT RESULT with " + t + " threads");
+                System.exit(1);
+            }
+        }
+        if (verbose) { printMatches(baseline.results); }
+        printSweep(baseline.results, pressIntervals);
+    }
+
+    /** Results of one batch, in match order, and how long it took. */
+    private static class Batch {
+        final List<Match.Result> results;
+        final long elapsed; // Nanoseconds for the whole batch.
+        final long ticks; // Ticks across every match.
+
+        Batch(List<Match.Result> results, long elapsed, long ticks) {
+            this.results = results;
+            this.elapsed = elapsed;
+            this.ticks = ticks;
+        }
+
+        double matchesPerSecond() { return results.size() / (elapsed / 1e9); }
+    }
+
+    /** Run every match on a fixed pool of threads and wait for them all. */
+    private static Batch run(List<Match> matches, int threads) throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<Match.Result>> futures = pool.invokeAll(matches);
+            List<Match.Result> results = new ArrayList<Match.Result>(futures.size());
+            for (Future<Match.Result> future : futures) {
+                results.add(future.get()); // Rethrows anything a match threw.
+            }
+            long elapsed = System.nanoTime() - start;
+            long ticks = 0;
+            for (Match match : matches) { ticks += match.getTicks(); }
+            return new Batch(results, elapsed, ticks);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Throughput, and the spread of each match's tick latency, for a batch. */
+    private static void printBatch(int threads, Batch batch, double baseline) {
+        int n = batch.results.size();
+        long[] p50s = new long[n];
+        long worstP99 = 0, worstMax = 0;
+        for (int i = 0; i < n; i++) {
+            Match.Result result = batch.results.get(i);
+            p50s[i] = result.p50;
+            worstP99 = Math.max(worstP99, result.p99);
+            worstMax = Math.max(worstMax, result.max);
+        }
+        Arrays.sort(p50s);
+        double seconds = batch.elapsed / 1e9;
+        System.out.println(String.format("%2d threads  %7.2f matches/s  %9.0f ticks/s%s  tick us: median p50 %.1f,"
+                        + " worst p99 %.1f, worst %.1f", threads, n / seconds, batch.ticks / seconds,
+                baseline > 0 ? String.format("  %5.2fx", (n / seconds) / baseline) : "",
+                p50s[n / 2] / 1e3, worstP99 / 1e3, worstMax / 1e3));
+    }
+
+    /** One line per match. */
+    private static void printMatches(List<Match.Result> results) {
+        for (Match.Result r : results) {
+            System.out.println(String.format("match %4d  seed %6d  interval %3d  score %6d  hits %5d  "
+                            + "%6.0f ms  p50 %6.1f us  p99 %6.1f us  checksum %x", r.id, r.seed, r.pressInterval,
+                    r.score, r.hits, r.elapsed / 1e6, r.p50 / 1e3, r.p99 / 1e3, r.checksum));
+        }
+    }
+
+    /** Average score and hits taken for each press interval in the sweep. */
+    private static void printSweep(List<Match.Result> results, int[] pressIntervals) {
+        for (int interval : pressIntervals) {
+            long score = 0, hits = 0;
+            int count = 0;
+            for (Match.Result r : results) {
+                if (r.pressInterval != interval) { continue; }
+                score += r.score;
+                hits += r.hits;
+                count++;
+            }
+            if (count == 0) { continue; }
+            System.out.println(String.format("press every %3d ticks: %d matches, avg score %.1f, avg hits %.1f",
+                    interval, count, score / (double) count, hits / (double) count));
+        }
+    }
+
+    private static boolean sameChecksums(List<Match.Result> a, List<Match.Result> b) {
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i).checksum != b.get(i).checksum) { return false; }
+        }
+        return true;
+    }
+}